@@ -0,0 +1,46 @@
+package com.authforge.benchmark;
+
+import com.authforge.dto.AuthResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a full login {@link AuthResponse}, configured like the application's
+ * ObjectMapper ({@code spring.jackson.default-property-inclusion: non_null}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AuthResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        response = AuthResponse.builder()
+                .accessToken("eyJraWQiOiJrZXkiLCJhbGciOiJIUzUxMiJ9." + "a".repeat(280) + "." + "b".repeat(86))
+                .refreshToken("6f1c2b8e-3d4a-4b5c-9e7f-0a1b2c3d4e5f")
+                .tokenType("Bearer")
+                .expiresIn(900000)
+                .user(AuthResponse.UserDto.builder()
+                        .id(42L)
+                        .name("Bench User")
+                        .email("bench@example.com")
+                        .role("USER")
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,83 @@
+package com.authforge.benchmark;
+
+import com.authforge.security.BreachedPasswordFile;
+import com.authforge.security.BreachedPasswordFileBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BreachedPasswordFile#contains} against a generated file of random digests, probing
+ * half hits and half misses so both the found and not-found paths of the bucket search count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreachedPasswordLookupBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int hashes;
+
+    private BreachedPasswordFile file;
+    private byte[][] probes;
+    private int next;
+    private Path dir;
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        byte[][] digests = new byte[hashes][20];
+        for (byte[] digest : digests) {
+            random.nextBytes(digest);
+        }
+        Arrays.sort(digests, Arrays::compareUnsigned);
+
+        dir = Files.createTempDirectory("breached-bench");
+        Path text = dir.resolve("hashes.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(text)) {
+            for (byte[] digest : digests) {
+                out.write(HexFormat.of().withUpperCase().formatHex(digest));
+                out.write(":1\n");
+            }
+        }
+        Path binary = dir.resolve("hashes.bin");
+        try (BufferedReader in = Files.newBufferedReader(text)) {
+            BreachedPasswordFileBuilder.convert(in, binary);
+        }
+        file = BreachedPasswordFile.open(binary);
+
+        probes = new byte[4096][];
+        for (int i = 0; i < probes.length; i++) {
+            if (i % 2 == 0) {
+                probes[i] = digests[random.nextInt(hashes)];
+            } else {
+                probes[i] = new byte[20];
+                random.nextBytes(probes[i]);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dir.resolve("hashes.txt"));
+        Files.deleteIfExists(dir.resolve("hashes.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        byte[] probe = probes[next++ & (probes.length - 1)];
+        return file.contains(probe);
+    }
+}
@@ -0,0 +1,87 @@
+package com.authforge.benchmark;
+
+import com.authforge.controller.TokenIntrospectionController;
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.repository.RevokedTokenRepository;
+import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.SecurityFixtures;
+import com.authforge.security.TokenRevocationList;
+import com.authforge.security.VerifiedTokenCache;
+import com.authforge.service.TokenIntrospectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Per-token cost of introspection through the MVC stack: one form-encoded request per
+ * token versus one JSON batch of {@value #BATCH_SIZE} distinct tokens. Scores are per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-long-enough-for-hs256-algorithm-1234567890";
+    static final int BATCH_SIZE = 50;
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private MockMvc mockMvc;
+    private List<String> tokens;
+    private String batchBody;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = SecurityFixtures.tokenProvider(SECRET, 900000L);
+        VerifiedTokenCache cache = new VerifiedTokenCache(provider, new SimpleMeterRegistry(), cacheEnabled, 10000);
+        TokenRevocationList revocations = new TokenRevocationList(
+                Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry(), 100000, 0.01);
+        TokenIntrospectionService service = new TokenIntrospectionService(cache, revocations, BATCH_SIZE);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TokenIntrospectionController(service)).build();
+
+        tokens = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tokens.add(provider.generateAccessToken(User.builder()
+                    .email("bench" + i + "@example.com")
+                    .name("Bench")
+                    .role(Role.USER)
+                    .build()));
+        }
+        batchBody = "{\"tokens\":[\"" + String.join("\",\"", tokens) + "\"]}";
+    }
+
+    @Benchmark
+    public MockHttpServletResponse single() throws Exception {
+        String token = tokens.get(next);
+        next = (next + 1) % BATCH_SIZE;
+        return mockMvc.perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", token))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public MockHttpServletResponse batch() throws Exception {
+        return mockMvc.perform(post("/oauth2/introspect")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,75 @@
+package com.authforge.benchmark;
+
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.repository.RevokedTokenRepository;
+import com.authforge.repository.UserRepository;
+import com.authforge.security.JwtAuthFilter;
+import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.SecurityFixtures;
+import com.authforge.security.SecurityVersionTracker;
+import com.authforge.security.TokenRevocationList;
+import com.authforge.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stateless {@link JwtAuthFilter} throughput for a repeatedly presented token,
+ * with the verified-token cache on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-long-enough-for-hs256-algorithm-1234567890";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = SecurityFixtures.tokenProvider(SECRET, 900000L);
+        VerifiedTokenCache cache = new VerifiedTokenCache(provider, new SimpleMeterRegistry(), cacheEnabled, 10000);
+        UserRepository users = Mockito.mock(UserRepository.class);
+        Mockito.when(users.findSecurityVersionByEmail("bench@example.com")).thenReturn(Optional.of(0L));
+        SecurityVersionTracker tracker = new SecurityVersionTracker(users, new SimpleMeterRegistry(), 60000L, 1000);
+        TokenRevocationList revocations = new TokenRevocationList(
+                Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry(), 100000, 0.01);
+        filter = new JwtAuthFilter(cache, null, tracker, revocations, true);
+        authorization = "Bearer " + provider.generateAccessToken(User.builder()
+                .email("bench@example.com")
+                .name("Bench")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.authforge.benchmark;
+
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.security.JwtSigningKey;
+import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.SecurityFixtures;
+import com.authforge.security.ValidatedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token issue and verify cost per signing algorithm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-long-enough-for-hs256-algorithm-1234567890";
+
+    @Param({JwtSigningKey.HMAC, JwtSigningKey.ES256, JwtSigningKey.EDDSA})
+    public String algorithm;
+
+    private JwtTokenProvider provider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtSigningKey key = JwtSigningKey.HMAC.equals(algorithm)
+                ? JwtSigningKey.hmac(SECRET)
+                : JwtSigningKey.generate(algorithm);
+        provider = SecurityFixtures.tokenProvider(SecurityFixtures.keyRing(key), 900000L);
+        user = User.builder()
+                .email("bench@example.com")
+                .name("Bench")
+                .role(Role.USER)
+                .build();
+        token = provider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return provider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Optional<ValidatedToken> validate() {
+        return provider.validate(token);
+    }
+}
@@ -0,0 +1,77 @@
+package com.authforge.benchmark;
+
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.SecurityFixtures;
+import com.authforge.security.ValidatedToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy filter path (fresh parser, two verifications per request)
+ * with the single-pass {@link JwtTokenProvider#validate(String)} API, and measures how
+ * cheaply expired and garbage tokens are turned away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-long-enough-for-hs256-algorithm-1234567890";
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtTokenProvider provider;
+    private SecretKey key;
+    private String token;
+    private String expiredToken;
+
+    @Setup
+    public void setUp() {
+        provider = SecurityFixtures.tokenProvider(SECRET, 900000L);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = provider.generateAccessToken(User.builder()
+                .email(EMAIL)
+                .name("Bench")
+                .role(Role.USER)
+                .build());
+        expiredToken = SecurityFixtures.tokenProvider(SECRET, -3600000L).generateAccessToken(User.builder()
+                .email(EMAIL)
+                .name("Bench")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Benchmark
+    public boolean legacyDoubleParse() {
+        String email = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+        String again = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+        return email.equals(EMAIL) && again.equals(email);
+    }
+
+    @Benchmark
+    public Optional<ValidatedToken> singlePassValidate() {
+        return provider.validate(token);
+    }
+
+    @Benchmark
+    public Optional<ValidatedToken> rejectExpired() {
+        return provider.validate(expiredToken);
+    }
+
+    @Benchmark
+    public Optional<ValidatedToken> rejectGarbage() {
+        return provider.validate("not-a-jwt");
+    }
+}
@@ -0,0 +1,64 @@
+package com.authforge.benchmark;
+
+import com.authforge.security.RateLimitFilter;
+import com.authforge.security.SecurityFixtures;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitFilter} bucket lookup and consume under 8 threads, either all hitting
+ * one client's bucket or spread across many clients. The limit is high enough that
+ * requests are never rejected, so only the lookup and token accounting are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = SecurityFixtures.rateLimitFilter(Integer.MAX_VALUE);
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        String[] addresses;
+
+        @Setup
+        public void setUp(RateLimitFilterBenchmark benchmark) {
+            request = new MockHttpServletRequest("POST", "/api/auth/login");
+            response = new MockHttpServletResponse();
+            addresses = new String[benchmark.clients];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            }
+        }
+    }
+
+    @Benchmark
+    public int consume(Request state) throws Exception {
+        state.request.setRemoteAddr(state.addresses[ThreadLocalRandom.current().nextInt(state.addresses.length)]);
+        state.request.removeAttribute(RateLimitFilter.class.getName() + ".FILTERED");
+        filter.doFilter(state.request, state.response, NO_OP_CHAIN);
+        return state.response.getStatus();
+    }
+}
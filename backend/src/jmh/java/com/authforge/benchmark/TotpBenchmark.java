@@ -0,0 +1,41 @@
+package com.authforge.benchmark;
+
+import com.authforge.service.TotpService;
+import dev.samstevens.totp.code.DefaultCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TotpService#verifyCode} for a correct code and for a wrong one, which has to
+ * check every step in the allowed time window before failing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TotpBenchmark {
+
+    private TotpService totpService;
+    private String secret;
+    private String validCode;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        totpService = new TotpService();
+        secret = totpService.generateSecret();
+        validCode = new DefaultCodeGenerator().generate(secret, System.currentTimeMillis() / 1000 / 30);
+    }
+
+    @Benchmark
+    public boolean verifyValidCode() {
+        return totpService.verifyCode(secret, validCode);
+    }
+
+    @Benchmark
+    public boolean verifyInvalidCode() {
+        return totpService.verifyCode(secret, "000000");
+    }
+}
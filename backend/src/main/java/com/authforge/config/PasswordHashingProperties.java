@@ -0,0 +1,41 @@
+package com.authforge.config;
+
+import com.authforge.security.PasswordEncoders;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "authforge.password-hashing")
+public class PasswordHashingProperties {
+
+    /** Hashing pool size; 0 means one thread per available processor. */
+    private int threads = 0;
+
+    private int queueCapacity = 64;
+
+    /** Algorithm for new and upgraded hashes: {@code bcrypt} or {@code argon2}. */
+    private String algorithm = PasswordEncoders.BCRYPT;
+
+    /** BCrypt cost, and the floor for calibration. */
+    private int bcryptStrength = 10;
+
+    private int argon2Memory = 19456;
+
+    /** Argon2 iterations, and the floor for calibration. */
+    private int argon2Iterations = 2;
+
+    private Calibration calibration = new Calibration();
+
+    @Data
+    public static class Calibration {
+        private boolean enabled = true;
+        private Duration targetLatency = Duration.ofMillis(100);
+        private int samples = 5;
+        private int maxBcryptStrength = 16;
+        private int maxArgon2Iterations = 10;
+    }
+}
@@ -0,0 +1,73 @@
+package com.authforge.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs the PostgreSQL trigger that stamps {@code rate_limit_buckets.updated_at} on every
+ * write. Bucket4j's UPDATE only sets the state, and the purge job relies on the timestamp to
+ * tell idle buckets from active ones. A no-op once the trigger exists.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "authforge.rate-limit.distributed", havingValue = "true")
+public class RateLimitBucketSchemaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitBucketSchemaMigration.class);
+
+    private static final String TRIGGER_EXISTS = """
+            select count(*)
+            from pg_trigger
+            where tgname = 'rate_limit_buckets_touch'
+              and tgrelid = 'rate_limit_buckets'::regclass
+            """;
+
+    private static final String TOUCH_FUNCTION = """
+            create or replace function rate_limit_buckets_touch() returns trigger as $$
+            begin
+                new.updated_at := current_timestamp;
+                return new;
+            end
+            $$ language plpgsql
+            """;
+
+    private static final String TOUCH_TRIGGER = """
+            create trigger rate_limit_buckets_touch
+            before update on rate_limit_buckets
+            for each row execute function rate_limit_buckets_touch()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RateLimitBucketSchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (triggerExists()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute(TOUCH_FUNCTION);
+            jdbcTemplate.execute(TOUCH_TRIGGER);
+            log.info("Installed the updated_at trigger on rate_limit_buckets");
+        } catch (DataAccessException e) {
+            // Another replica starting at the same time may have won the race
+            if (!triggerExists()) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean triggerExists() {
+        Integer count = jdbcTemplate.queryForObject(TRIGGER_EXISTS, Integer.class);
+        return count != null && count > 0;
+    }
+}
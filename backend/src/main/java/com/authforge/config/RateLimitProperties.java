@@ -0,0 +1,32 @@
+package com.authforge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "authforge.rate-limit")
+public class RateLimitProperties {
+
+    /** Budget per IP for auth endpoints that no policy names. */
+    private int requestsPerMinute = 30;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    public enum KeyType {
+        IP,
+        IP_EMAIL
+    }
+
+    @Data
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        private int requestsPerMinute;
+    }
+}
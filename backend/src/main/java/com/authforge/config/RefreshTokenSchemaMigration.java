@@ -0,0 +1,74 @@
+package com.authforge.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Brings a {@code refresh_tokens} table created by older releases in line with the multi-session
+ * model. {@code ddl-auto: update} adds the new columns and indexes but never drops the unique
+ * constraint the old one-to-one mapping put on {@code user_id}, which would still allow only one
+ * session per user. Rows issued before sessions existed each become a session of their own.
+ * Both steps are no-ops once applied.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class RefreshTokenSchemaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenSchemaMigration.class);
+
+    private static final String SINGLE_USER_CONSTRAINTS = """
+            select tc.constraint_name
+            from information_schema.table_constraints tc
+            join information_schema.key_column_usage kcu
+              on kcu.constraint_name = tc.constraint_name
+             and kcu.table_schema = tc.table_schema
+             and kcu.table_name = tc.table_name
+            where lower(tc.table_name) = 'refresh_tokens'
+              and tc.table_schema = current_schema
+              and tc.constraint_type = 'UNIQUE'
+            group by tc.constraint_name
+            having count(*) = 1 and max(lower(kcu.column_name)) = 'user_id'
+            """;
+
+    private static final String REQUIRED_PLAINTEXT_TOKEN = """
+            select count(*)
+            from information_schema.columns
+            where lower(table_name) = 'refresh_tokens'
+              and table_schema = current_schema
+              and lower(column_name) = 'token'
+              and is_nullable = 'NO'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenSchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        List<String> constraints = jdbcTemplate.queryForList(SINGLE_USER_CONSTRAINTS, String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("alter table refresh_tokens drop constraint \"" + constraint.replace("\"", "") + "\"");
+            log.info("Dropped one-session-per-user constraint {} from refresh_tokens", constraint);
+        }
+
+        Integer required = jdbcTemplate.queryForObject(REQUIRED_PLAINTEXT_TOKEN, Integer.class);
+        if (required != null && required > 0) {
+            jdbcTemplate.execute("alter table refresh_tokens alter column token drop not null");
+            log.info("Made refresh_tokens.token nullable; new tokens are stored as digests only");
+        }
+
+        int legacy = jdbcTemplate.update("update refresh_tokens set family_id = concat('legacy-', id), "
+                + "session_started_at = current_timestamp where family_id is null");
+        if (legacy > 0) {
+            log.info("Assigned {} pre-session refresh tokens to sessions of their own", legacy);
+        }
+    }
+}
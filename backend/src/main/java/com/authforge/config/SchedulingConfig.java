@@ -0,0 +1,14 @@
+package com.authforge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on the pool sized by {@code spring.task.scheduling.pool.size}.
+ * Spring's default is a single thread, on which a purge job holding it for minutes would also
+ * stall the revocation-list refresh that is due every few seconds.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,9 +1,14 @@
 package com.authforge.config;
 
+import com.authforge.security.BoundedPasswordEncoder;
+import com.authforge.security.ConcurrencyLimitFilter;
 import com.authforge.security.CustomOAuth2UserService;
 import com.authforge.security.JwtAuthFilter;
 import com.authforge.security.OAuth2AuthenticationSuccessHandler;
+import com.authforge.security.PasswordHashCalibrator;
+import com.authforge.security.PasswordEncoders;
 import com.authforge.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,8 +21,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -36,6 +41,7 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final UserDetailsService userDetailsService;
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2AuthenticationSuccessHandler oAuth2SuccessHandler;
@@ -47,12 +53,14 @@ public class SecurityConfig {
     public SecurityConfig(
             JwtAuthFilter jwtAuthFilter,
             RateLimitFilter rateLimitFilter,
+            ConcurrencyLimitFilter concurrencyLimitFilter,
             UserDetailsService userDetailsService,
             CustomOAuth2UserService customOAuth2UserService,
             OAuth2AuthenticationSuccessHandler oAuth2SuccessHandler,
             FeatureFlags featureFlags) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.rateLimitFilter = rateLimitFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
         this.userDetailsService = userDetailsService;
         this.customOAuth2UserService = customOAuth2UserService;
         this.oAuth2SuccessHandler = oAuth2SuccessHandler;
@@ -60,16 +68,19 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider)
+            throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/oauth2/introspect").hasAnyAuthority("SCOPE_introspect", "ROLE_ADMIN")
                         .requestMatchers("/oauth2/**", "/login/oauth2/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health", "/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated());
 
         if (featureFlags.isOauth2()) {
@@ -78,12 +89,14 @@ public class SecurityConfig {
                     .successHandler(oAuth2SuccessHandler));
         }
 
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
 
         if (featureFlags.isRateLimiting()) {
             http.addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
         }
 
+        http.addFilterBefore(concurrencyLimitFilter, UsernamePasswordAuthenticationFilter.class);
+
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -104,10 +117,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            provider.setUserDetailsPasswordService(passwordService);
+        }
         return provider;
     }
 
@@ -117,8 +133,28 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "close")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry, PasswordHashingProperties hashing) {
+        int bcryptStrength = hashing.getBcryptStrength();
+        int argon2Iterations = hashing.getArgon2Iterations();
+
+        PasswordHashingProperties.Calibration calibration = hashing.getCalibration();
+        if (calibration.isEnabled()) {
+            PasswordHashCalibrator calibrator =
+                    new PasswordHashCalibrator(meterRegistry, calibration.getTargetLatency(), calibration.getSamples());
+            if (PasswordEncoders.ARGON2.equals(hashing.getAlgorithm())) {
+                argon2Iterations = calibrator.calibrate(PasswordEncoders.ARGON2,
+                        iterations -> PasswordEncoders.argon2(hashing.getArgon2Memory(), iterations),
+                        argon2Iterations, calibration.getMaxArgon2Iterations());
+            } else {
+                bcryptStrength = calibrator.calibrate(PasswordEncoders.BCRYPT, PasswordEncoders::bcrypt,
+                        bcryptStrength, calibration.getMaxBcryptStrength());
+            }
+        }
+
+        int poolSize = hashing.getThreads() > 0 ? hashing.getThreads() : Runtime.getRuntime().availableProcessors();
+        PasswordEncoder target = PasswordEncoders.delegating(
+                hashing.getAlgorithm(), bcryptStrength, hashing.getArgon2Memory(), argon2Iterations);
+        return new BoundedPasswordEncoder(target, poolSize, hashing.getQueueCapacity(), meterRegistry);
     }
 }
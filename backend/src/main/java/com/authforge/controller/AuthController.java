@@ -3,6 +3,7 @@ package com.authforge.controller;
 import com.authforge.dto.*;
 import com.authforge.service.AuthService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -74,11 +75,17 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Logout the current user", description = "Invalidates the current session and refresh token.", security = @SecurityRequirement(name = "bearerAuth"))
+    @Operation(summary = "Logout the current user", description = "Ends the session of the given refresh token (or every session when none is sent) and revokes the presented access token.", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponse(responseCode = "200", description = "Logged out successfully")
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, String>> logout(Authentication authentication) {
-        authService.logout(authentication.getName());
+    public ResponseEntity<Map<String, String>> logout(
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) TokenRefreshRequest body) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(authentication.getName(), accessToken, body != null ? body.getRefreshToken() : null);
         return ResponseEntity.ok(Map.of(MESSAGE_KEY, "Logged out successfully"));
     }
 
@@ -0,0 +1,42 @@
+package com.authforge.controller;
+
+import com.authforge.security.JwkSetDocument;
+import com.authforge.security.JwtTokenProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@Tag(name = "Key Discovery", description = "Public keys for verifying access tokens without calling AuthForge")
+public class JwksController {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final CacheControl cacheControl;
+
+    public JwksController(
+            JwtTokenProvider jwtTokenProvider,
+            @Value("${authforge.jwt.jwks-max-age:900}") long maxAgeSeconds) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @Operation(summary = "JSON Web Key Set", description = "Returns the public signing keys (RFC 7517). Empty when tokens are HMAC-signed.")
+    @ApiResponse(responseCode = "200", description = "Key set returned")
+    @ApiResponse(responseCode = "304", description = "Key set unchanged since the supplied ETag")
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        JwkSetDocument jwkSet = jwtTokenProvider.getJwkSet();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(jwkSet.etag())
+                .body(jwkSet.json());
+    }
+}
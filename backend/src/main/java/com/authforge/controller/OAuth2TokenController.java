@@ -0,0 +1,76 @@
+package com.authforge.controller;
+
+import com.authforge.dto.ClientTokenResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.service.ClientCredentialsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@RestController
+@Tag(name = "Client Credentials", description = "OAuth2 token endpoint for machine clients")
+public class OAuth2TokenController {
+
+    private static final String CLIENT_CREDENTIALS = "client_credentials";
+
+    private final ClientCredentialsService clientCredentialsService;
+
+    public OAuth2TokenController(ClientCredentialsService clientCredentialsService) {
+        this.clientCredentialsService = clientCredentialsService;
+    }
+
+    @Operation(summary = "Issue a client token", description = "client_credentials grant (RFC 6749 §4.4). Client credentials go in HTTP Basic auth or the client_id/client_secret form fields.")
+    @ApiResponse(responseCode = "200", description = "Access token issued")
+    @ApiResponse(responseCode = "400", description = "Unsupported grant type, invalid client or scope")
+    @PostMapping(value = "/oauth2/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<ClientTokenResponse> token(
+            @RequestParam("grant_type") String grantType,
+            @RequestParam(value = "scope", required = false) String scope,
+            @RequestParam(value = "client_id", required = false) String clientId,
+            @RequestParam(value = "client_secret", required = false) String clientSecret,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+
+        if (!CLIENT_CREDENTIALS.equals(grantType)) {
+            throw new BadRequestException("Unsupported grant type: " + grantType);
+        }
+
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String[] credentials = basicCredentials(authorization.substring(6));
+            clientId = credentials[0];
+            clientSecret = credentials[1];
+        }
+
+        ClientTokenResponse response = clientCredentialsService.issueToken(clientId, clientSecret, scope);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(HttpHeaders.PRAGMA, "no-cache")
+                .body(response);
+    }
+
+    private static String[] basicCredentials(String encoded) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0) {
+                throw new BadRequestException("Malformed client credentials");
+            }
+            return new String[] {
+                    URLDecoder.decode(decoded.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(decoded.substring(separator + 1), StandardCharsets.UTF_8) };
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed client credentials");
+        }
+    }
+}
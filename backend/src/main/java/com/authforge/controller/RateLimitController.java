@@ -0,0 +1,49 @@
+package com.authforge.controller;
+
+import com.authforge.dto.RateLimitOffender;
+import com.authforge.security.RateLimitMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rate-limit")
+@Tag(name = "Admin Management", description = "Endpoints for administrative actions (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class RateLimitController {
+
+    private static final int MAX_OFFENDERS = 100;
+
+    private final RateLimitMonitor rateLimitMonitor;
+
+    public RateLimitController(RateLimitMonitor rateLimitMonitor) {
+        this.rateLimitMonitor = rateLimitMonitor;
+    }
+
+    @Operation(summary = "Top rate-limit offenders", description = "Returns the clients rejected most often in the current window, for blocking upstream.")
+    @ApiResponse(responseCode = "200", description = "Offenders returned successfully")
+    @ApiResponse(responseCode = "403", description = "Access denied (requires ADMIN role)")
+    @GetMapping("/offenders")
+    public ResponseEntity<Map<String, Object>> getOffenders(@RequestParam(defaultValue = "20") int limit) {
+        List<RateLimitOffender> offenders = rateLimitMonitor.topOffenders(Math.max(1, Math.min(limit, MAX_OFFENDERS)))
+                .stream()
+                .map(entry -> RateLimitOffender.builder()
+                        .client(entry.key())
+                        .rejected(entry.count())
+                        .error(entry.error())
+                        .build())
+                .toList();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("windowStart", rateLimitMonitor.windowStart());
+        body.put("offenders", offenders);
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,53 @@
+package com.authforge.controller;
+
+import com.authforge.dto.ServiceClientRequest;
+import com.authforge.dto.ServiceClientResponse;
+import com.authforge.service.ClientCredentialsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/clients")
+@Tag(name = "Admin Management", description = "Endpoints for administrative actions (requires ADMIN role)")
+@SecurityRequirement(name = "bearerAuth")
+public class ServiceClientController {
+
+    private final ClientCredentialsService clientCredentialsService;
+
+    public ServiceClientController(ClientCredentialsService clientCredentialsService) {
+        this.clientCredentialsService = clientCredentialsService;
+    }
+
+    @Operation(summary = "Register a machine client", description = "Creates a client for the client_credentials grant. The secret is only returned in this response.")
+    @ApiResponse(responseCode = "201", description = "Client created")
+    @ApiResponse(responseCode = "400", description = "Invalid name or scopes")
+    @PostMapping
+    public ResponseEntity<ServiceClientResponse> createClient(@Valid @RequestBody ServiceClientRequest request) {
+        ServiceClientResponse response = clientCredentialsService.createClient(request.getName(), request.getScopes());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @Operation(summary = "List machine clients", description = "Returns all registered clients without their secrets.")
+    @ApiResponse(responseCode = "200", description = "List of clients returned successfully")
+    @GetMapping
+    public ResponseEntity<List<ServiceClientResponse>> getAllClients() {
+        return ResponseEntity.ok(clientCredentialsService.getAllClients());
+    }
+
+    @Operation(summary = "Delete a machine client", description = "Removes the client; tokens already issued stay valid until they expire.")
+    @ApiResponse(responseCode = "204", description = "Client deleted")
+    @ApiResponse(responseCode = "404", description = "Client not found")
+    @DeleteMapping("/{clientId}")
+    public ResponseEntity<Void> deleteClient(@PathVariable String clientId) {
+        clientCredentialsService.deleteClient(clientId);
+        return ResponseEntity.noContent().build();
+    }
+}
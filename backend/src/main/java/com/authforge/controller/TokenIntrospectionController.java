@@ -0,0 +1,71 @@
+package com.authforge.controller;
+
+import com.authforge.dto.IntrospectionBatchRequest;
+import com.authforge.dto.IntrospectionResponse;
+import com.authforge.service.TokenIntrospectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@PreAuthorize("hasAnyAuthority('SCOPE_introspect', 'ROLE_ADMIN')")
+@Tag(name = "Token Introspection", description = "RFC 7662 introspection for consumers that do not verify JWTs themselves")
+public class TokenIntrospectionController {
+
+    private static final String PATH = "/oauth2/introspect";
+
+    private final TokenIntrospectionService introspectionService;
+
+    public TokenIntrospectionController(TokenIntrospectionService introspectionService) {
+        this.introspectionService = introspectionService;
+    }
+
+    @Operation(summary = "Introspect a token", description = "Form-encoded `token` parameter as defined by RFC 7662.", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Introspection result, cacheable until the token expires")
+    @PostMapping(value = PATH, consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam("token") String token) {
+        IntrospectionResponse response = introspectionService.introspect(token);
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl(List.of(response)))
+                .body(response);
+    }
+
+    @Operation(summary = "Introspect a batch of tokens", description = "Results are returned in request order.", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Introspection results, cacheable until the earliest active token expires")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    @PostMapping(value = PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<IntrospectionResponse>> introspectBatch(
+            @Valid @RequestBody IntrospectionBatchRequest request) {
+        List<IntrospectionResponse> responses = introspectionService.introspect(request.getTokens());
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl(responses))
+                .body(responses);
+    }
+
+    private static CacheControl cacheControl(List<IntrospectionResponse> responses) {
+        long now = Instant.now().getEpochSecond();
+        long maxAge = responses.stream()
+                .filter(IntrospectionResponse::isActive)
+                .mapToLong(r -> r.getExp() != null ? r.getExp() - now : 0)
+                .min()
+                .orElse(0);
+
+        return maxAge > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate()
+                : CacheControl.noStore();
+    }
+}
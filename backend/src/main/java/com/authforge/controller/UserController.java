@@ -1,11 +1,15 @@
 package com.authforge.controller;
 
 import com.authforge.dto.AuthResponse;
+import com.authforge.dto.SessionResponse;
 import com.authforge.model.User;
+import com.authforge.service.RefreshTokenService;
 import com.authforge.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,6 +18,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Profile", description = "Endpoints for managing user accounts")
@@ -21,9 +27,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class UserController {
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, RefreshTokenService refreshTokenService) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Operation(summary = "Get current user profile", description = "Returns the profile information of the currently authenticated user.")
@@ -41,4 +49,36 @@ public class UserController {
 
         return ResponseEntity.ok(dto);
     }
+
+    @Operation(summary = "List active sessions", description = "Returns one entry per device that is still logged in.")
+    @ApiResponse(responseCode = "200", description = "Sessions returned successfully")
+    @GetMapping("/me/sessions")
+    public ResponseEntity<List<SessionResponse>> getSessions(Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName());
+
+        List<SessionResponse> sessions = refreshTokenService.findSessions(user).stream()
+                .map(token -> SessionResponse.builder()
+                        .id(token.getFamilyId())
+                        .userAgent(token.getUserAgent())
+                        .startedAt(token.getSessionStartedAt())
+                        .lastUsedAt(token.getCreatedAt())
+                        .expiresAt(token.getExpiryDate())
+                        .build())
+                .toList();
+
+        return ResponseEntity.ok(sessions);
+    }
+
+    @Operation(summary = "Revoke a session", description = "Logs one device out by revoking its refresh tokens. Access tokens already issued stay valid until they expire.")
+    @ApiResponse(responseCode = "204", description = "Session revoked")
+    @ApiResponse(responseCode = "404", description = "No such session for this user")
+    @DeleteMapping("/me/sessions/{id}")
+    public ResponseEntity<Void> revokeSession(Authentication authentication, @PathVariable String id) {
+        User user = userService.getUserByEmail(authentication.getName());
+
+        if (!refreshTokenService.revokeFamily(user, id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
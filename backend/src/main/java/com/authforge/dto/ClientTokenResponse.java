@@ -0,0 +1,24 @@
+package com.authforge.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ClientTokenResponse {
+    @Schema(description = "JWT Access Token", example = "eyJhbGciOiJIUzI1NiIsInR5c...")
+    @JsonProperty("access_token")
+    private String accessToken;
+    @Schema(description = "Token type", example = "Bearer")
+    @JsonProperty("token_type")
+    private String tokenType;
+    @Schema(description = "Seconds until the access token expires", example = "240")
+    @JsonProperty("expires_in")
+    private long expiresIn;
+    @Schema(description = "Space-separated scopes granted to the token", example = "introspect")
+    private String scope;
+}
@@ -0,0 +1,15 @@
+package com.authforge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionBatchRequest {
+
+    @Schema(description = "Access tokens to introspect; results are returned in the same order")
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+}
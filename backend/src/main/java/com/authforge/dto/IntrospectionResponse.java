@@ -0,0 +1,37 @@
+package com.authforge.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class IntrospectionResponse {
+    @Schema(description = "Whether the token is currently valid", example = "true")
+    private boolean active;
+    @Schema(description = "Subject (user email) of the token", example = "john.doe@example.com")
+    private String sub;
+    @Schema(description = "Role granted by the token", example = "USER")
+    private String role;
+    @Schema(description = "Expiry as seconds since the epoch", example = "1760000000")
+    private Long exp;
+    @Schema(description = "Issue time as seconds since the epoch", example = "1759999100")
+    private Long iat;
+    @Schema(description = "Unique token identifier", example = "3f6c1d1e-5b8e-4c53-9a0f-0d9b3c7e2a41")
+    private String jti;
+    @Schema(description = "Machine client the token was issued to", example = "svc_Xb3k9q2LmP7vR1tA")
+    @JsonProperty("client_id")
+    private String clientId;
+    @Schema(description = "Space-separated scopes of a client token", example = "introspect")
+    private String scope;
+    @Schema(description = "Token type", example = "Bearer")
+    @JsonProperty("token_type")
+    private String tokenType;
+
+    public static IntrospectionResponse inactive() {
+        return IntrospectionResponse.builder().active(false).build();
+    }
+}
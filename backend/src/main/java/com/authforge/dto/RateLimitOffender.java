@@ -0,0 +1,18 @@
+package com.authforge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class RateLimitOffender {
+    @Schema(description = "Client address as seen by the rate limiter", example = "203.0.113.7")
+    private String client;
+    @Schema(description = "Rejected requests counted for this client in the current window", example = "4812")
+    private long rejected;
+    @Schema(description = "Upper bound on over-counting; the true count is at least rejected - error", example = "0")
+    private long error;
+}
@@ -0,0 +1,20 @@
+package com.authforge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ServiceClientRequest {
+
+    @Schema(description = "Human-readable name of the machine client", example = "billing-worker")
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @Schema(description = "Scopes the client may request", example = "[\"introspect\"]")
+    @NotEmpty(message = "At least one scope is required")
+    private List<String> scopes;
+}
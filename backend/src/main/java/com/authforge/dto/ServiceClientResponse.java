@@ -0,0 +1,24 @@
+package com.authforge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ServiceClientResponse {
+    @Schema(description = "Client identifier used for the client_credentials grant", example = "svc_Xb3k9q2LmP7vR1tA")
+    private String clientId;
+    @Schema(description = "Client secret; only returned once, when the client is created")
+    private String clientSecret;
+    @Schema(description = "Human-readable name of the machine client", example = "billing-worker")
+    private String name;
+    @Schema(description = "Scopes the client may request", example = "[\"introspect\"]")
+    private List<String> scopes;
+    @Schema(description = "Whether the client may obtain tokens", example = "true")
+    private boolean enabled;
+}
@@ -0,0 +1,24 @@
+package com.authforge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class SessionResponse {
+    @Schema(description = "Session identifier, shared by every refresh token rotated from the same login")
+    private String id;
+    @Schema(description = "User-Agent of the client that logged in", example = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X)")
+    private String userAgent;
+    @Schema(description = "When the session was created by a login")
+    private Instant startedAt;
+    @Schema(description = "When the session last refreshed its tokens")
+    private Instant lastUsedAt;
+    @Schema(description = "When the current refresh token expires")
+    private Instant expiresAt;
+}
@@ -2,9 +2,12 @@ package com.authforge.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -21,6 +24,7 @@ public class GlobalExceptionHandler {
     private static final String TIMESTAMP_KEY = "timestamp";
     private static final String STATUS_KEY = "status";
     private static final String ERROR_KEY = "error";
+    private static final String LOGIN_LOCKED = "Too many failed login attempts. Try again later.";
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
@@ -44,6 +48,44 @@ public class GlobalExceptionHandler {
                 ERROR_KEY, "Invalid email or password"));
     }
 
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyAttempts(TooManyAttemptsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        TIMESTAMP_KEY, LocalDateTime.now().toString(),
+                        STATUS_KEY, 429,
+                        ERROR_KEY, ex.getMessage(),
+                        "retryAfter", ex.getRetryAfterSeconds()));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        TIMESTAMP_KEY, LocalDateTime.now().toString(),
+                        STATUS_KEY, 503,
+                        ERROR_KEY, ex.getMessage(),
+                        "retryAfter", ex.getRetryAfterSeconds()));
+    }
+
+    @ExceptionHandler(LockedException.class)
+    public ResponseEntity<Map<String, Object>> handleLocked(LockedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                TIMESTAMP_KEY, LocalDateTime.now().toString(),
+                STATUS_KEY, 429,
+                ERROR_KEY, LOGIN_LOCKED));
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Map<String, Object>> handleAccessDenied(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                TIMESTAMP_KEY, LocalDateTime.now().toString(),
+                STATUS_KEY, 403,
+                ERROR_KEY, "Access denied"));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex) {
         log.error("Runtime exception: {}", ex.getMessage());
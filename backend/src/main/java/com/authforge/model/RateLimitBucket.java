@@ -0,0 +1,31 @@
+package com.authforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Shared rate-limit bucket state, read and written by Bucket4j's PostgreSQL proxy manager
+ * when {@code authforge.rate-limit.distributed} is on. Mapped here only so that
+ * {@code ddl-auto} creates the table; the application never loads it through JPA.
+ * {@code updated_at} is maintained by the database: a column default on insert and a
+ * trigger on update, since Bucket4j only ever writes {@code id} and {@code state}.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    private String id;
+
+    private byte[] state;
+
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) with time zone default current_timestamp not null")
+    private Instant updatedAt;
+}
@@ -2,11 +2,21 @@ package com.authforge.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expiry", columnList = "expiryDate"),
+        @Index(name = "idx_refresh_tokens_rotated", columnList = "rotatedAt")
+}, uniqueConstraints = {
+        // Include the expiry so the same constraints hold when the table is partitioned by it
+        @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = {"token_hash", "expiryDate"}),
+        @UniqueConstraint(name = "uk_refresh_tokens_token", columnNames = {"token", "expiryDate"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,17 +28,48 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    /**
+     * SHA-256 of the token handed to the client; the token itself is never stored. Unique in
+     * practice because every token is 256 random bits; the database only enforces it per expiry.
+     */
+    @Column(name = "token_hash", length = 32)
+    private byte[] tokenHash;
+
+    /** Plaintext UUID of tokens issued before hashing; null for everything newer. */
+    @Column(name = "token")
+    private String legacyToken;
+
+    /** Client-facing value, known only when the token is issued or presented. */
+    @Transient
     private String token;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /** One family per login session; every rotation of that session shares it. */
+    @Column(name = "family_id", length = 64)
+    private String familyId;
+
+    private Instant sessionStartedAt;
+
+    @Column(length = 255)
+    private String userAgent;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
+    /** Set once this token has been exchanged; presenting it again means it was stolen. */
+    private Instant rotatedAt;
+
     @Column(nullable = false)
     private Instant expiryDate;
 
     public boolean isExpired() {
         return expiryDate.isBefore(Instant.now());
     }
+
+    public boolean isRotated() {
+        return rotatedAt != null;
+    }
 }
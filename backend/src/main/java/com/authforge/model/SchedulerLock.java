@@ -0,0 +1,29 @@
+package com.authforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A lease on a scheduled job, so that a job runs on one node at a time. A row whose
+ * {@code lockedUntil} has passed is free, which also covers a holder that died mid-run.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    @Column(nullable = false)
+    private String lockedBy;
+}
@@ -0,0 +1,39 @@
+package com.authforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "service_clients")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceClient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String clientId;
+
+    @Column(nullable = false)
+    private String secretHash;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String scopes;
+
+    @Builder.Default
+    private boolean enabled = true;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
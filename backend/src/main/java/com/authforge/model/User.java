@@ -2,9 +2,11 @@ package com.authforge.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
@@ -53,6 +55,13 @@ public class User {
 
     private String verificationToken;
 
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long securityVersion = 0;
+
+    private Instant lockedUntil;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
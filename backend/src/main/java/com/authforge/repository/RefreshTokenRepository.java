@@ -2,13 +2,51 @@ package com.authforge.repository;
 
 import com.authforge.model.RefreshToken;
 import com.authforge.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
-    void deleteByUser(User user);
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByLegacyToken(String legacyToken);
+
+    @Query("select t from RefreshToken t where t.user = :user and t.rotatedAt is null and t.expiryDate > :now "
+            + "order by t.createdAt desc")
+    List<RefreshToken> findActiveByUser(@Param("user") User user, @Param("now") Instant now);
+
+    @Query("select distinct t.familyId from RefreshToken t where t.user = :user and t.familyId is not null")
+    List<String> findFamilyIdsByUser(@Param("user") User user);
+
+    @Query("select t.id from RefreshToken t where t.expiryDate <= :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    @Query("select t.id from RefreshToken t where t.rotatedAt <= :before order by t.rotatedAt")
+    List<Long> findRotatedIds(@Param("before") Instant before, Pageable page);
+
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now where t.id = :id and t.rotatedAt is null")
+    int markRotated(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user and t.familyId = :familyId")
+    int deleteByUserAndFamilyId(@Param("user") User user, @Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user = :user")
+    int deleteByUser(@Param("user") User user);
 }
@@ -0,0 +1,32 @@
+package com.authforge.repository;
+
+import com.authforge.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :until, l.lockedBy = :owner "
+            + "where l.name = :name and l.lockedUntil <= :now")
+    int acquireExpired(@Param("name") String name, @Param("owner") String owner,
+                       @Param("now") Instant now, @Param("until") Instant until);
+
+    /** Plain insert rather than {@code save}, which would merge over a lease held elsewhere. */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into scheduler_locks (name, locked_until, locked_by) values (:name, :until, :owner)",
+            nativeQuery = true)
+    void insert(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,11 @@
+package com.authforge.repository;
+
+import com.authforge.model.ServiceClient;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ServiceClientRepository extends JpaRepository<ServiceClient, Long> {
+
+    Optional<ServiceClient> findByClientId(String clientId);
+}
@@ -2,7 +2,12 @@ package com.authforge.repository;
 
 import com.authforge.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +17,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByVerificationToken(String token);
+
+    @Query("select u.securityVersion from User u where u.email = :email")
+    Optional<Long> findSecurityVersionByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.lockedUntil = :lockedUntil where u.email = :email")
+    int updateLockedUntil(@Param("email") String email, @Param("lockedUntil") Instant lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
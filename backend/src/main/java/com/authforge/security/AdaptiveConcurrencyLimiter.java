@@ -0,0 +1,77 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for password-hashing endpoints. Each completed request is a latency
+ * sample: above {@code latency-threshold} the limit is multiplied by {@code backoff-ratio},
+ * otherwise it grows by roughly one per limit's worth of completions while the limit is
+ * actually in use. Requests beyond the limit are refused immediately instead of queueing on
+ * Tomcat threads. Published as {@code auth.concurrency.limit} and {@code auth.concurrency.in-flight}.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${authforge.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${authforge.concurrency-limit.min-limit:2}") int minLimit,
+            @Value("${authforge.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${authforge.concurrency-limit.latency-threshold:500}") long latencyThresholdMillis,
+            @Value("${authforge.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = Duration.ofMillis(latencyThresholdMillis).toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        Gauge.builder("auth.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("auth.concurrency.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int before = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (before * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,26 @@
+package com.authforge.security;
+
+import com.authforge.model.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * {@link org.springframework.security.core.userdetails.UserDetails} that keeps the entity it was
+ * built from, so code holding the authenticated principal does not have to load the same row
+ * again.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final transient User user;
+
+    public AuthenticatedUser(User user, String password, boolean accountNonLocked,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(user.getEmail(), password, user.isEnabled(), true, true, accountNonLocked, authorities);
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+}
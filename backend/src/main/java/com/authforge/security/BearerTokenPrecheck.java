@@ -0,0 +1,148 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rejects bearer tokens that cannot possibly verify before any signature work is done:
+ * oversized strings, anything that is not three base64url segments with a JSON payload,
+ * and tokens whose unverified {@code exp} is missing or already past the clock skew.
+ * Rejections are counted by reason in {@code jwt.rejected} instead of being logged.
+ */
+@Component
+public class BearerTokenPrecheck {
+
+    public enum Reason {
+        OVERSIZED, MALFORMED, EXPIRED, INVALID
+    }
+
+    private static final byte[] EXP_CLAIM = "\"exp\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxLength;
+    private final long clockSkewSeconds;
+    private final Map<Reason, Counter> rejections = new EnumMap<>(Reason.class);
+
+    public BearerTokenPrecheck(
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.max-token-length:4096}") int maxLength,
+            @Value("${authforge.jwt.clock-skew:60}") long clockSkewSeconds) {
+        this.maxLength = maxLength;
+        this.clockSkewSeconds = clockSkewSeconds;
+        for (Reason reason : Reason.values()) {
+            rejections.put(reason, Counter.builder("jwt.rejected")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean accept(String token) {
+        Reason reason = check(token);
+        if (reason != null) {
+            rejected(reason);
+            return false;
+        }
+        return true;
+    }
+
+    public void rejected(Reason reason) {
+        rejections.get(reason).increment();
+    }
+
+    private Reason check(String token) {
+        if (token == null || token.isEmpty()) {
+            return Reason.MALFORMED;
+        }
+        if (token.length() > maxLength) {
+            return Reason.OVERSIZED;
+        }
+
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || second == token.length() - 1
+                || token.indexOf('.', second + 1) >= 0 || !isBase64Url(token)) {
+            return Reason.MALFORMED;
+        }
+
+        byte[] payload;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+        } catch (IllegalArgumentException e) {
+            return Reason.MALFORMED;
+        }
+        if (payload.length == 0 || payload[0] != '{') {
+            return Reason.MALFORMED;
+        }
+
+        long exp = readExp(payload);
+        if (exp < 0) {
+            return Reason.MALFORMED;
+        }
+        if (exp + clockSkewSeconds < System.currentTimeMillis() / 1000) {
+            return Reason.EXPIRED;
+        }
+        return null;
+    }
+
+    private static boolean isBase64Url(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finds "exp": <digits> without a JSON parser; -1 when absent or not numeric. A quoted
+    // "exp" can only occur as a key or a whole string value, and only the key is followed by ':'.
+    private static long readExp(byte[] payload) {
+        for (int at = indexOf(payload, EXP_CLAIM, 0); at >= 0; at = indexOf(payload, EXP_CLAIM, at + 1)) {
+            int i = skipSpaces(payload, at + EXP_CLAIM.length);
+            if (i >= payload.length || payload[i] != ':') {
+                continue;
+            }
+            i = skipSpaces(payload, i + 1);
+
+            long value = 0;
+            int digits = 0;
+            while (i < payload.length && payload[i] >= '0' && payload[i] <= '9' && digits < 18) {
+                value = value * 10 + (payload[i] - '0');
+                i++;
+                digits++;
+            }
+            return digits == 0 ? -1 : value;
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(byte[] bytes, int from) {
+        int i = from;
+        while (i < bytes.length && (bytes[i] == ' ' || bytes[i] == '\t' || bytes[i] == '\n' || bytes[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle, int from) {
+        outer:
+        for (int i = from; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.authforge.security;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only set of breached SHA-1 password digests, memory-mapped so a multi-gigabyte list
+ * never touches the heap.
+ *
+ * <p>Layout: a 4-byte magic, then {@value #BUCKETS} + 1 big-endian longs giving the first
+ * record of each 2-byte digest prefix, then the remaining 18 bytes of every digest in ascending
+ * order. The prefix table is copied into a {@code long[]} on open (about 512 KB), so a lookup
+ * binary-searches only its own bucket, a few thousand records for the full HIBP list, which is
+ * two or three page touches once warm. Files larger than one mapping are split into segments
+ * that end on record boundaries. Files are written by {@link BreachedPasswordFileBuilder}.
+ */
+public final class BreachedPasswordFile {
+
+    static final int MAGIC = 0x41464250; // "AFBP"
+    static final int BUCKETS = 1 << 16;
+    static final int DIGEST_LENGTH = 20;
+    static final int SUFFIX_LENGTH = DIGEST_LENGTH - 2;
+    static final int HEADER_LENGTH = Integer.BYTES + (BUCKETS + 1) * Long.BYTES;
+
+    private static final int DEFAULT_SEGMENT_RECORDS = Integer.MAX_VALUE / SUFFIX_LENGTH;
+
+    private final long[] bucketStart;
+    private final MappedByteBuffer[] segments;
+    private final int segmentRecords;
+
+    private BreachedPasswordFile(long[] bucketStart, MappedByteBuffer[] segments, int segmentRecords) {
+        this.bucketStart = bucketStart;
+        this.segments = segments;
+        this.segmentRecords = segmentRecords;
+    }
+
+    public static BreachedPasswordFile open(Path path) throws IOException {
+        return open(path, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    static BreachedPasswordFile open(Path path, int segmentRecords) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header);
+            }
+            header.flip();
+            if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC) {
+                throw new IOException("Not a breached-password file: " + path);
+            }
+            long[] bucketStart = new long[BUCKETS + 1];
+            header.asLongBuffer().get(bucketStart);
+
+            long records = bucketStart[BUCKETS];
+            if (channel.size() != HEADER_LENGTH + records * SUFFIX_LENGTH) {
+                throw new IOException("Truncated breached-password file: " + path);
+            }
+
+            int segmentCount = (int) ((records + segmentRecords - 1) / segmentRecords);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * segmentRecords;
+                long count = Math.min(segmentRecords, records - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_LENGTH + first * SUFFIX_LENGTH, count * SUFFIX_LENGTH);
+            }
+            return new BreachedPasswordFile(bucketStart, segments, segmentRecords);
+        }
+    }
+
+    public long size() {
+        return bucketStart[BUCKETS];
+    }
+
+    public boolean contains(byte[] digest) {
+        if (digest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Expected a SHA-1 digest");
+        }
+        int bucket = ((digest[0] & 0xff) << 8) | (digest[1] & 0xff);
+        long high = ByteBuffer.wrap(digest, 2, Long.BYTES).getLong();
+        long low = ByteBuffer.wrap(digest, 10, Long.BYTES).getLong();
+        short tail = ByteBuffer.wrap(digest, 18, Short.BYTES).getShort();
+
+        long lo = bucketStart[bucket];
+        long hi = bucketStart[bucket + 1] - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, high, low, tail);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compare(long record, long high, long low, short tail) {
+        ByteBuffer segment = segments[(int) (record / segmentRecords)];
+        int offset = (int) (record % segmentRecords) * SUFFIX_LENGTH;
+        int cmp = Long.compareUnsigned(segment.getLong(offset), high);
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(segment.getLong(offset + 8), low);
+        }
+        if (cmp == 0) {
+            cmp = Integer.compare(Short.toUnsignedInt(segment.getShort(offset + 16)), Short.toUnsignedInt(tail));
+        }
+        return cmp;
+    }
+}
@@ -0,0 +1,111 @@
+package com.authforge.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static com.authforge.security.BreachedPasswordFile.BUCKETS;
+import static com.authforge.security.BreachedPasswordFile.DIGEST_LENGTH;
+import static com.authforge.security.BreachedPasswordFile.HEADER_LENGTH;
+import static com.authforge.security.BreachedPasswordFile.MAGIC;
+import static com.authforge.security.BreachedPasswordFile.SUFFIX_LENGTH;
+
+/**
+ * Offline tool that builds the file {@link BreachedPasswordFile} maps. It is not used by the
+ * running service; run it once per HIBP download:
+ * {@code BreachedPasswordFileBuilder <hibp-sha1-ordered-by-hash.txt> <output.bin>}.
+ */
+public final class BreachedPasswordFileBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(BreachedPasswordFileBuilder.class);
+
+    private BreachedPasswordFileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: BreachedPasswordFileBuilder <hibp-sha1-ordered-by-hash.txt> <output.bin>");
+        }
+        try (BufferedReader in = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.US_ASCII)) {
+            long written = convert(in, Path.of(args[1]));
+            log.info("Wrote {} hashes to {}", written, args[1]);
+        }
+    }
+
+    /**
+     * Converts a HIBP "Pwned Passwords" SHA-1 download ({@code HASH:count} per line, ordered by
+     * hash) into the {@link BreachedPasswordFile} layout, streaming so the input can be any size.
+     *
+     * @return the number of digests written
+     */
+    public static long convert(BufferedReader hashes, Path target) throws IOException {
+        long[] bucketStart = new long[BUCKETS + 1];
+        byte[] previous = null;
+        long records = 0;
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.position(HEADER_LENGTH);
+            ByteBuffer buffer = ByteBuffer.allocate(SUFFIX_LENGTH * 4096);
+            String line;
+            while ((line = hashes.readLine()) != null) {
+                int colon = line.indexOf(':');
+                String hex = (colon < 0 ? line : line.substring(0, colon)).trim();
+                if (hex.isEmpty()) {
+                    continue;
+                }
+                byte[] digest = HexFormat.of().parseHex(hex);
+                if (digest.length != DIGEST_LENGTH) {
+                    throw new IOException("Not a SHA-1 hash: " + hex);
+                }
+                if (previous != null) {
+                    int order = Arrays.compareUnsigned(previous, digest);
+                    if (order > 0) {
+                        throw new IOException("Input is not sorted by hash at " + hex);
+                    }
+                    if (order == 0) {
+                        continue;
+                    }
+                }
+                previous = digest;
+
+                bucketStart[(((digest[0] & 0xff) << 8) | (digest[1] & 0xff)) + 1]++;
+                if (buffer.remaining() < SUFFIX_LENGTH) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.put(digest, 2, SUFFIX_LENGTH);
+                records++;
+            }
+            writeFully(out, buffer.flip());
+
+            for (int i = 1; i <= BUCKETS; i++) {
+                bucketStart[i] += bucketStart[i - 1];
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.putInt(MAGIC);
+            header.asLongBuffer().put(bucketStart);
+            header.rewind();
+            out.position(0);
+            writeFully(out, header);
+        }
+        return records;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
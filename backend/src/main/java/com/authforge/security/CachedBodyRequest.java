@@ -0,0 +1,122 @@
+package com.authforge.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request wrapper that reads the start of the body once so a filter can inspect it and the
+ * controller can still bind the whole body. At most {@code limit + 1} bytes are buffered, so a
+ * filter can tell that a body was too long to inspect. The rest stays in the container's stream
+ * and is read after the buffered bytes.
+ */
+final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] head;
+    private ServletInputStream stream;
+
+    CachedBodyRequest(HttpServletRequest request, int limit) throws IOException {
+        super(request);
+        this.head = request.getInputStream().readNBytes(limit + 1);
+    }
+
+    /** The buffered start of the body; longer than the limit means the body was truncated. */
+    byte[] head() {
+        return head;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (stream == null) {
+            stream = new ReplayingInputStream(head, super.getInputStream());
+        }
+        return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    /** Serves the buffered bytes first, then whatever the container has not handed out yet. */
+    private static final class ReplayingInputStream extends ServletInputStream {
+
+        private final byte[] head;
+        private final ServletInputStream rest;
+        private int position;
+
+        ReplayingInputStream(byte[] head, ServletInputStream rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        private boolean replaying() {
+            return position < head.length;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return !replaying() && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return replaying() || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            rest.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    listener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    // The container only knows about its own stream; hand out the replayed bytes first
+                    if (replaying()) {
+                        listener.onDataAvailable();
+                    }
+                    listener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    listener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (replaying()) {
+                return head[position++] & 0xff;
+            }
+            return rest.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (replaying()) {
+                int n = Math.min(len, head.length - position);
+                System.arraycopy(head, position, b, off, n);
+                position += n;
+                return n;
+            }
+            return rest.read(b, off, len);
+        }
+    }
+}
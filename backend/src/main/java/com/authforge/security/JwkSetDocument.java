@@ -0,0 +1,33 @@
+package com.authforge.security;
+
+import io.jsonwebtoken.security.Jwks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-rendered JWK Set and its strong ETag, rebuilt only when the published keys change.
+ */
+public record JwkSetDocument(String json, String etag) {
+
+    public static JwkSetDocument of(Collection<JwtSigningKey> keys) {
+        String json = keys.stream()
+                .filter(JwtSigningKey::isAsymmetric)
+                .map(key -> Jwks.json(key.publicJwk()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        return new JwkSetDocument(json, "\"" + sha256(json) + "\"");
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
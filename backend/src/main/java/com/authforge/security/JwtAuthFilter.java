@@ -7,27 +7,43 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CustomUserDetailsService userDetailsService;
-
-    public JwtAuthFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService) {
-        this.jwtTokenProvider = jwtTokenProvider;
+    private final SecurityVersionTracker securityVersionTracker;
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
+
+    public JwtAuthFilter(
+            VerifiedTokenCache verifiedTokenCache,
+            CustomUserDetailsService userDetailsService,
+            SecurityVersionTracker securityVersionTracker,
+            TokenRevocationList revocationList,
+            @Value("${authforge.jwt.stateless.enabled:false}") boolean stateless) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
+        this.securityVersionTracker = securityVersionTracker;
+        this.revocationList = revocationList;
+        this.stateless = stateless;
     }
 
     @Override
@@ -46,12 +62,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String jwt = authHeader.substring(7);
 
         try {
-            String email = jwtTokenProvider.extractEmail(jwt);
+            Optional<ValidatedToken> token = verifiedTokenCache.validate(jwt)
+                    .filter(t -> !revocationList.isRevoked(t));
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (token.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = resolveUser(token.get());
 
-                if (jwtTokenProvider.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
 
@@ -67,4 +84,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUser(ValidatedToken token) {
+        if (token.isClientToken()) {
+            return new User(token.subject(), "", token.scopes().stream()
+                    .map(scope -> new SimpleGrantedAuthority("SCOPE_" + scope))
+                    .toList());
+        }
+
+        if (!stateless || !token.hasAuthorityClaims()) {
+            return userDetailsService.loadUserByUsername(token.subject());
+        }
+
+        if (!token.enabled() || !securityVersionTracker.isCurrent(token.subject(), token.securityVersion())) {
+            log.debug("Rejected stale or disabled stateless token for: {}", token.subject());
+            return null;
+        }
+
+        return new User(token.subject(), "", List.of(new SimpleGrantedAuthority("ROLE_" + token.role())));
+    }
 }
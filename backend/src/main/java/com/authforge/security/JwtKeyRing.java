@@ -0,0 +1,86 @@
+package com.authforge.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One active signing key plus verification-only keys, looked up by {@code kid}.
+ * Retired keys keep verifying until their tokens expire naturally, so rotation never
+ * forces everyone to re-authenticate at once.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public record KeyRingChangedEvent(String activeKeyId) {
+    }
+
+    private record Snapshot(JwtSigningKey active, Map<String, JwtSigningKey> byId, JwkSetDocument jwkSet) {
+    }
+
+    private final JwtKeySource source;
+    private final ApplicationEventPublisher events;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(JwtKeySource source, ApplicationEventPublisher events) {
+        this.source = source;
+        this.events = events;
+        JwtKeySource.LoadedKeys keys = source.load();
+        this.snapshot = snapshot(keys.active(), keys.verificationOnly());
+    }
+
+    public JwtSigningKey active() {
+        return snapshot.active();
+    }
+
+    public JwtSigningKey find(String keyId) {
+        Snapshot current = snapshot;
+        return keyId == null ? current.active() : current.byId().get(keyId);
+    }
+
+    public JwkSetDocument jwkSet() {
+        return snapshot.jwkSet();
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    @Scheduled(fixedDelayString = "${authforge.jwt.keys-reload-interval:60000}")
+    public void reload() {
+        if (!source.isReloadable()) {
+            return;
+        }
+
+        try {
+            if (!source.hasChanged()) {
+                return;
+            }
+            JwtKeySource.LoadedKeys keys = source.load();
+            snapshot = snapshot(keys.active(), keys.verificationOnly());
+            events.publishEvent(new KeyRingChangedEvent(keys.active().id()));
+        } catch (RuntimeException e) {
+            log.error("Key ring reload failed, keeping current keys: {}", e.getMessage());
+        }
+    }
+
+    private static Snapshot snapshot(JwtSigningKey active, List<JwtSigningKey> verificationOnly) {
+        Map<String, JwtSigningKey> byId = new HashMap<>();
+        List<JwtSigningKey> all = new ArrayList<>();
+        all.add(active);
+        all.addAll(verificationOnly);
+        for (JwtSigningKey key : all) {
+            byId.putIfAbsent(key.id(), key);
+        }
+        return new Snapshot(active, Map.copyOf(byId), JwkSetDocument.of(all));
+    }
+}
@@ -0,0 +1,173 @@
+package com.authforge.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Loads signing keys either from configuration or from a key directory.
+ *
+ * <p>Directory layout: {@code <name>.secret} holds an HMAC secret, {@code <name>.key} plus
+ * {@code <name>.pub} hold a PKCS#8/X.509 PEM pair for {@code authforge.jwt.algorithm}, and a
+ * lone {@code <name>.pub} is a verification-only key. The signing-capable key with the
+ * greatest name is active, so date-prefixed names rotate naturally.
+ */
+@Component
+public class JwtKeySource {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySource.class);
+
+    public record LoadedKeys(JwtSigningKey active, List<JwtSigningKey> verificationOnly) {
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final String algorithm;
+    private final String secret;
+    private final List<String> previousSecrets;
+    private final String privateKeyLocation;
+    private final String publicKeyLocation;
+    private final String keysDirectory;
+
+    private String fingerprint = "";
+
+    public JwtKeySource(
+            ResourceLoader resourceLoader,
+            @Value("${authforge.jwt.algorithm:HMAC}") String algorithm,
+            @Value("${authforge.jwt.secret}") String secret,
+            @Value("${authforge.jwt.previous-secrets:}") String previousSecrets,
+            @Value("${authforge.jwt.private-key-location:}") String privateKeyLocation,
+            @Value("${authforge.jwt.public-key-location:}") String publicKeyLocation,
+            @Value("${authforge.jwt.keys-directory:}") String keysDirectory) {
+        this.resourceLoader = resourceLoader;
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.previousSecrets = Arrays.stream(previousSecrets.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        this.privateKeyLocation = privateKeyLocation;
+        this.publicKeyLocation = publicKeyLocation;
+        this.keysDirectory = keysDirectory;
+    }
+
+    public boolean isReloadable() {
+        return !keysDirectory.isBlank();
+    }
+
+    public synchronized LoadedKeys load() {
+        return isReloadable() ? loadDirectory(Path.of(keysDirectory)) : loadConfigured();
+    }
+
+    public synchronized boolean hasChanged() {
+        return isReloadable() && !fingerprint.equals(fingerprint(Path.of(keysDirectory)));
+    }
+
+    private LoadedKeys loadConfigured() {
+        List<JwtSigningKey> previous = previousSecrets.stream().map(JwtSigningKey::hmac).toList();
+
+        if (JwtSigningKey.HMAC.equals(algorithm)) {
+            return new LoadedKeys(JwtSigningKey.hmac(secret), previous);
+        }
+
+        if (privateKeyLocation.isBlank() || publicKeyLocation.isBlank()) {
+            log.warn("No {} key pair configured, generating an ephemeral one. "
+                    + "Tokens will not survive a restart or be accepted by other replicas.", algorithm);
+            return new LoadedKeys(JwtSigningKey.generate(algorithm), previous);
+        }
+
+        JwtSigningKey key = JwtSigningKey.asymmetric(PemKeys.readKeyPair(algorithm,
+                readResource(privateKeyLocation), readResource(publicKeyLocation)));
+        log.info("Loaded {} signing key with kid {}", algorithm, key.id());
+        return new LoadedKeys(key, previous);
+    }
+
+    private LoadedKeys loadDirectory(Path directory) {
+        String currentFingerprint = fingerprint(directory);
+        TreeMap<String, JwtSigningKey> signing = new TreeMap<>();
+        List<JwtSigningKey> verificationOnly = new ArrayList<>();
+
+        for (Path file : list(directory)) {
+            String fileName = file.getFileName().toString();
+            int extension = fileName.lastIndexOf('.');
+            if (extension <= 0) {
+                continue;
+            }
+            String name = fileName.substring(0, extension);
+
+            if (fileName.endsWith(".secret")) {
+                signing.put(name, JwtSigningKey.hmac(read(file).trim()));
+            } else if (fileName.endsWith(".pub")) {
+                Path privateKey = directory.resolve(name + ".key");
+                if (Files.exists(privateKey)) {
+                    signing.put(name, JwtSigningKey.asymmetric(
+                            PemKeys.readKeyPair(algorithm, read(privateKey), read(file))));
+                } else {
+                    verificationOnly.add(JwtSigningKey.verificationOnly(PemKeys.readPublicKey(algorithm, read(file))));
+                }
+            }
+        }
+
+        if (signing.isEmpty()) {
+            throw new IllegalStateException("No signing key found in " + directory);
+        }
+
+        JwtSigningKey active = signing.remove(signing.lastKey());
+        verificationOnly.addAll(signing.values());
+        fingerprint = currentFingerprint;
+
+        log.info("Loaded key ring from {}: active kid {}, {} verification-only key(s)",
+                directory, active.id(), verificationOnly.size());
+        return new LoadedKeys(active, verificationOnly);
+    }
+
+    private static List<Path> list(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list key directory " + directory, e);
+        }
+    }
+
+    private static String fingerprint(Path directory) {
+        StringBuilder sb = new StringBuilder();
+        for (Path file : list(directory)) {
+            try {
+                sb.append(file.getFileName()).append(':')
+                        .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                        .append(Files.size(file)).append(';');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read key file " + file, e);
+        }
+    }
+
+    private String readResource(String location) {
+        try {
+            return resourceLoader.getResource(location).getContentAsString(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read key " + location, e);
+        }
+    }
+}
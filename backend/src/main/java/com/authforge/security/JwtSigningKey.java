@@ -0,0 +1,56 @@
+package com.authforge.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+/**
+ * A token signing key identified by its RFC 7638 thumbprint ({@code kid}). Asymmetric keys
+ * also carry the public JWK that is published at {@code /.well-known/jwks.json}.
+ */
+public record JwtSigningKey(String id, Key signingKey, Key verificationKey, PublicJwk<?> publicJwk) {
+
+    public static final String HMAC = "HMAC";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    public static JwtSigningKey hmac(String secret) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        Jwk<SecretKey> jwk = Jwks.builder().key(key).idFromThumbprint().build();
+        return new JwtSigningKey(jwk.getId(), key, key, null);
+    }
+
+    public static JwtSigningKey asymmetric(KeyPair keyPair) {
+        PublicJwk<?> jwk = Jwks.builder().key(keyPair.getPublic()).idFromThumbprint().build();
+        return new JwtSigningKey(jwk.getId(), keyPair.getPrivate(), keyPair.getPublic(), jwk);
+    }
+
+    public static JwtSigningKey verificationOnly(PublicKey publicKey) {
+        PublicJwk<?> jwk = Jwks.builder().key(publicKey).idFromThumbprint().build();
+        return new JwtSigningKey(jwk.getId(), null, publicKey, jwk);
+    }
+
+    public static JwtSigningKey generate(String algorithm) {
+        return switch (algorithm) {
+            case ES256 -> asymmetric(Jwts.SIG.ES256.keyPair().build());
+            case EDDSA -> asymmetric(Jwks.CRV.Ed25519.keyPair().build());
+            default -> throw new IllegalArgumentException("Cannot generate key for algorithm: " + algorithm);
+        };
+    }
+
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    public boolean isAsymmetric() {
+        return publicJwk != null;
+    }
+}
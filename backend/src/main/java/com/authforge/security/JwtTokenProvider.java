@@ -1,62 +1,137 @@
 package com.authforge.security;
 
+import com.authforge.model.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
-    private final SecretKey key;
+    private final JwtKeyRing keyRing;
+    private final BearerTokenPrecheck precheck;
+    private final JwtParser parser;
     private final long accessTokenExpiration;
 
     public JwtTokenProvider(
-            @Value("${authforge.jwt.secret}") String secret,
+            JwtKeyRing keyRing,
+            BearerTokenPrecheck precheck,
             @Value("${authforge.jwt.access-token-expiration}") long accessTokenExpiration) {
-        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(
-                java.util.Base64.getEncoder().encodeToString(secret.getBytes())));
+        this.keyRing = keyRing;
+        this.precheck = precheck;
+        this.parser = Jwts.parser().keyLocator(this::locateKey).build();
         this.accessTokenExpiration = accessTokenExpiration;
     }
 
-    public String generateAccessToken(UserDetails userDetails) {
+    public String generateAccessToken(User user) {
+        JwtSigningKey key = keyRing.active();
         return Jwts.builder()
-                .subject(userDetails.getUsername())
+                .header().keyId(key.id()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(ValidatedToken.ROLE_CLAIM, user.getRole().name())
+                .claim(ValidatedToken.ENABLED_CLAIM, user.isEnabled())
+                .claim(ValidatedToken.SECURITY_VERSION_CLAIM, user.getSecurityVersion())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(key)
+                .signWith(key.signingKey())
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
+    public String generateClientToken(String clientId, String scope, Instant expiresAt) {
+        JwtSigningKey key = keyRing.active();
+        return Jwts.builder()
+                .header().keyId(key.id()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(clientId)
+                .claim(ValidatedToken.CLIENT_ID_CLAIM, clientId)
+                .claim(ValidatedToken.SCOPE_CLAIM, scope)
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(key.signingKey())
+                .compact();
+    }
+
+    /**
+     * Self-contained refresh token for one session: it names the user and family and carries the
+     * authority claims an access token needs, so a refresh can be answered without loading the
+     * user. Profile fields are left out because nothing would keep them current.
+     */
+    public String generateRefreshToken(User user, String familyId, Instant expiresAt) {
+        JwtSigningKey key = keyRing.active();
+        return Jwts.builder()
+                .header().keyId(key.id()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(ValidatedToken.TOKEN_USE_CLAIM, ValidatedToken.REFRESH_TOKEN_USE)
+                .claim(ValidatedToken.USER_ID_CLAIM, user.getId())
+                .claim(ValidatedToken.FAMILY_CLAIM, familyId)
+                .claim(ValidatedToken.ROLE_CLAIM, user.getRole().name())
+                .claim(ValidatedToken.ENABLED_CLAIM, user.isEnabled())
+                .claim(ValidatedToken.SECURITY_VERSION_CLAIM, user.getSecurityVersion())
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(key.signingKey())
+                .compact();
+    }
+
+    /** Verifies a bearer token; signed refresh tokens are never accepted here. */
+    public Optional<ValidatedToken> validate(String token) {
+        return verify(token, false);
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
+    public Optional<ValidatedToken> validateRefreshToken(String token) {
+        return verify(token, true);
+    }
+
+    private Optional<ValidatedToken> verify(String token, boolean refresh) {
+        if (!precheck.accept(token)) {
+            return Optional.empty();
+        }
+
         try {
-            String email = extractEmail(token);
-            return email.equals(userDetails.getUsername());
+            Claims claims = extractClaims(token);
+            ValidatedToken validated = ValidatedToken.from(claims);
+            if (claims.getSubject() == null || validated.isRefreshToken() != refresh) {
+                precheck.rejected(BearerTokenPrecheck.Reason.INVALID);
+                return Optional.empty();
+            }
+            return Optional.of(validated);
+        } catch (ExpiredJwtException e) {
+            precheck.rejected(BearerTokenPrecheck.Reason.EXPIRED);
+            return Optional.empty();
         } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
+            precheck.rejected(BearerTokenPrecheck.Reason.INVALID);
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        JwtSigningKey key = keyRing.find(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+        }
+        return key.verificationKey();
+    }
+
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    public JwkSetDocument getJwkSet() {
+        return keyRing.jwkSet();
     }
 
     public long getAccessTokenExpiration() {
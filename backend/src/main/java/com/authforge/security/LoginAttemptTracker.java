@@ -0,0 +1,174 @@
+package com.authforge.security;
+
+import com.authforge.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account failed-login tracking, checked before any password is hashed. After
+ * {@code free-attempts} failures each further attempt must wait a doubling delay, and at
+ * {@code max-failures} the account is locked for {@code lockout-duration}. Counters live in a
+ * bounded cache keyed by the submitted email, so accounts that do not exist are throttled the
+ * same way as real ones. With {@code persist-lockout} the lockout is also written to
+ * {@code users.locked_until} so a restart does not lift it.
+ *
+ * <p>An attempt is reserved with {@link #tryAcquire} before the password is checked, and the
+ * reservation counts as a failure in flight. Check and reservation happen in one per-key
+ * {@code compute}, so parallel requests cannot all pass the check before any of them fails.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    static final String CACHE_NAME = "login.attempts";
+
+    /** Only read or changed inside the cache's per-key {@code compute}. */
+    private static final class Attempts {
+        int failures;
+        int pending;
+        long blockedUntil;
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, Attempts> attempts;
+    private final Ticker ticker;
+    private final int freeAttempts;
+    private final int maxFailures;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final long lockoutNanos;
+    private final boolean persistLockout;
+    private final Counter throttled;
+    private final Counter lockouts;
+
+    /** {@code ticker} falls back to the system clock when no {@link Ticker} bean is defined. */
+    public LoginAttemptTracker(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.login-throttle.free-attempts:3}") int freeAttempts,
+            @Value("${authforge.login-throttle.max-failures:10}") int maxFailures,
+            @Value("${authforge.login-throttle.base-delay:1000}") long baseDelayMillis,
+            @Value("${authforge.login-throttle.max-delay:30000}") long maxDelayMillis,
+            @Value("${authforge.login-throttle.lockout-duration:900000}") long lockoutMillis,
+            @Value("${authforge.login-throttle.max-tracked:100000}") long maxTracked,
+            @Value("${authforge.login-throttle.persist-lockout:true}") boolean persistLockout,
+            Optional<Ticker> ticker) {
+        this.userRepository = userRepository;
+        this.ticker = ticker.orElseGet(Ticker::systemTicker);
+        this.freeAttempts = freeAttempts;
+        this.maxFailures = maxFailures;
+        this.baseDelayNanos = Duration.ofMillis(baseDelayMillis).toNanos();
+        this.maxDelayNanos = Duration.ofMillis(maxDelayMillis).toNanos();
+        this.lockoutNanos = Duration.ofMillis(lockoutMillis).toNanos();
+        this.persistLockout = persistLockout;
+        // An entry must outlive its longest block, otherwise eviction would lift a lockout early
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofNanos(Math.max(lockoutNanos, maxDelayNanos)))
+                .ticker(this.ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, attempts, CACHE_NAME);
+        this.throttled = Counter.builder("auth.login.throttled").register(meterRegistry);
+        this.lockouts = Counter.builder("auth.login.lockouts").register(meterRegistry);
+    }
+
+    /**
+     * Reserves an attempt for this account and returns 0, or returns the seconds the caller must
+     * wait without reserving anything. A reservation must be settled with
+     * {@link #recordFailure}, {@link #recordSuccess} or {@link #release}.
+     */
+    public long tryAcquire(String email) {
+        long[] remaining = new long[1];
+        attempts.asMap().compute(key(email), (k, state) -> {
+            Attempts current = state != null ? state : new Attempts();
+            long wait = current.blockedUntil - ticker.read();
+            if (wait <= 0 && current.pending > 0) {
+                // Attempts still in flight would earn a delay if they all failed
+                wait = blockFor(current.failures + current.pending);
+            }
+            if (wait > 0) {
+                remaining[0] = wait;
+            } else {
+                current.pending++;
+            }
+            return current;
+        });
+        if (remaining[0] <= 0) {
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining[0] + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Converts a reservation into a failure and returns whether it locked the account.
+     */
+    public boolean recordFailure(String email) {
+        int[] failures = new int[1];
+        attempts.asMap().compute(key(email), (k, state) -> {
+            Attempts current = state != null ? state : new Attempts();
+            current.pending = Math.max(0, current.pending - 1);
+            failures[0] = ++current.failures;
+            long block = blockFor(current.failures);
+            if (block > 0) {
+                current.blockedUntil = Math.max(current.blockedUntil, ticker.read() + block);
+            }
+            return current;
+        });
+
+        if (failures[0] != maxFailures) {
+            return false;
+        }
+        lockouts.increment();
+        log.warn("Login locked for {} after {} failed attempts", email, failures[0]);
+        if (persistLockout) {
+            userRepository.updateLockedUntil(email, Instant.now().plusNanos(lockoutNanos));
+        }
+        return true;
+    }
+
+    public void recordSuccess(String email) {
+        attempts.invalidate(key(email));
+    }
+
+    /**
+     * Gives back a reservation whose attempt ended without a verdict on the password.
+     */
+    public void release(String email) {
+        attempts.asMap().computeIfPresent(key(email), (k, current) -> {
+            current.pending = Math.max(0, current.pending - 1);
+            return current;
+        });
+    }
+
+    private long blockFor(int failures) {
+        if (failures >= maxFailures) {
+            return lockoutNanos;
+        }
+        if (failures > freeAttempts) {
+            int doublings = Math.min(failures - freeAttempts - 1, 30);
+            return Math.min(maxDelayNanos, baseDelayNanos << doublings);
+        }
+        return 0;
+    }
+
+    private static String key(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package com.authforge.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@code {id}}-prefixed encoder used for stored passwords. New hashes are written
+ * with the target algorithm and parameters; anything else still verifies and reports
+ * {@link PasswordEncoder#upgradeEncoding} so it is rewritten on the user's next login.
+ * Hashes stored before prefixes were introduced are plain BCrypt and match as such.
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    private PasswordEncoders() {
+    }
+
+    public static PasswordEncoder delegating(String algorithm, int bcryptStrength, int argon2MemoryKib,
+                                             int argon2Iterations) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        PasswordEncoder bcrypt = bcrypt(bcryptStrength);
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2(argon2MemoryKib, argon2Iterations));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    public static PasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    public static PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+                memoryKib, iterations);
+    }
+}
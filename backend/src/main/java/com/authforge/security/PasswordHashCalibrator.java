@@ -0,0 +1,94 @@
+package com.authforge.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Picks the strongest hashing cost whose median encode time on this machine fits the latency
+ * target. Costs are tried from the configured floor upwards and the search stops at the first
+ * one that is too slow, so startup pays for at most one over-budget round of samples. The
+ * floor is kept even when it misses the target. The result is published as
+ * {@code auth.password-hash.cost} and {@code auth.password-hash.calibrated-time}.
+ */
+public class PasswordHashCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final String PROBE = "calibration-probe-password";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration target;
+    private final int samples;
+    private final Ticker ticker;
+
+    public PasswordHashCalibrator(MeterRegistry meterRegistry, Duration target, int samples) {
+        this(meterRegistry, target, samples, Ticker.systemTicker());
+    }
+
+    PasswordHashCalibrator(MeterRegistry meterRegistry, Duration target, int samples, Ticker ticker) {
+        this.meterRegistry = meterRegistry;
+        this.target = target;
+        this.samples = Math.max(1, samples);
+        this.ticker = ticker;
+    }
+
+    public int calibrate(String algorithm, IntFunction<PasswordEncoder> encoders, int minCost, int maxCost) {
+        long targetNanos = target.toNanos();
+        int chosen = minCost;
+        long chosenNanos = medianEncodeNanos(encoders.apply(minCost));
+
+        if (chosenNanos <= targetNanos) {
+            for (int cost = minCost + 1; cost <= maxCost; cost++) {
+                long nanos = medianEncodeNanos(encoders.apply(cost));
+                if (nanos > targetNanos) {
+                    break;
+                }
+                chosen = cost;
+                chosenNanos = nanos;
+            }
+        }
+
+        long medianMillis = TimeUnit.NANOSECONDS.toMillis(chosenNanos);
+        if (chosenNanos > targetNanos) {
+            log.warn("Password hashing: {} cost {} takes {} ms, above the {} ms target; keeping the configured minimum",
+                    algorithm, chosen, medianMillis, target.toMillis());
+        } else {
+            log.info("Password hashing: calibrated {} cost {} ({} ms median, target {} ms)",
+                    algorithm, chosen, medianMillis, target.toMillis());
+        }
+
+        int cost = chosen;
+        double seconds = chosenNanos / 1e9;
+        Gauge.builder("auth.password-hash.cost", () -> cost)
+                .tag("algorithm", algorithm)
+                .description("Hashing cost chosen by startup calibration")
+                .register(meterRegistry);
+        TimeGauge.builder("auth.password-hash.calibrated-time", () -> seconds, TimeUnit.SECONDS)
+                .tag("algorithm", algorithm)
+                .description("Median encode time measured at the chosen cost")
+                .register(meterRegistry);
+        return chosen;
+    }
+
+    long medianEncodeNanos(PasswordEncoder encoder) {
+        encoder.encode(PROBE);
+        long[] timings = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = ticker.read();
+            encoder.encode(PROBE);
+            timings[i] = ticker.read() - start;
+        }
+        Arrays.sort(timings);
+        return timings[samples / 2];
+    }
+}
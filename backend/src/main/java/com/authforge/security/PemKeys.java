@@ -0,0 +1,52 @@
+package com.authforge.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Reads PKCS#8 private keys and X.509 public keys from PEM text.
+ */
+public final class PemKeys {
+
+    private PemKeys() {
+    }
+
+    public static KeyPair readKeyPair(String algorithm, String privateKeyPem, String publicKeyPem) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(decode(privateKeyPem)));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(decode(publicKeyPem)));
+            return new KeyPair(publicKey, privateKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " PEM key: " + e.getMessage(), e);
+        }
+    }
+
+    public static PublicKey readPublicKey(String algorithm, String publicKeyPem) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+            return factory.generatePublic(new X509EncodedKeySpec(decode(publicKeyPem)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " PEM key: " + e.getMessage(), e);
+        }
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return switch (algorithm) {
+            case JwtSigningKey.ES256 -> "EC";
+            case JwtSigningKey.EDDSA -> "EdDSA";
+            default -> throw new IllegalArgumentException("Unsupported asymmetric algorithm: " + algorithm);
+        };
+    }
+
+    private static byte[] decode(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,99 @@
+package com.authforge.security;
+
+import com.authforge.service.ScheduledJobLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Deletes shared rate-limit buckets that have not been written for a full refill period.
+ * Bucket4j's JDBC proxy never removes a row, so every distinct client key would otherwise stay
+ * in {@code rate_limit_buckets} forever. A bucket idle that long has refilled completely, and a
+ * new one starts full too, so nothing is lost. The delete re-checks {@code updated_at}, so a
+ * bucket written during the sweep is kept. Rows are walked by key in batches, and one node
+ * sweeps at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "authforge.rate-limit.distributed", havingValue = "true")
+public class RateLimitBucketPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitBucketPurgeJob.class);
+    static final String LOCK_NAME = "rate-limit-bucket-purge";
+
+    private static final String PAGE =
+            "select id from rate_limit_buckets where id > ? order by id limit ?";
+    private static final String DELETE_IDLE =
+            "delete from rate_limit_buckets where id > ? and id <= ? and updated_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledJobLock jobLock;
+    private final Counter purged;
+    private final Duration refillPeriod;
+    private final int batchSize;
+    private final Duration lockLease;
+
+    public RateLimitBucketPurgeJob(
+            JdbcTemplate jdbcTemplate,
+            ScheduledJobLock jobLock,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.rate-limit.idle-timeout:60000}") long refillPeriodMillis,
+            @Value("${authforge.rate-limit.purge.batch-size:1000}") int batchSize,
+            @Value("${authforge.rate-limit.purge.lock-lease:600000}") long lockLeaseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLock = jobLock;
+        this.purged = meterRegistry.counter("rate-limit.buckets.purged");
+        this.refillPeriod = Duration.ofMillis(refillPeriodMillis);
+        this.batchSize = batchSize;
+        this.lockLease = Duration.ofMillis(lockLeaseMillis);
+    }
+
+    @Scheduled(initialDelayString = "${authforge.rate-limit.purge.interval:300000}",
+            fixedDelayString = "${authforge.rate-limit.purge.interval:300000}")
+    public void run() {
+        try {
+            if (!jobLock.runExclusively(LOCK_NAME, lockLease, this::purge)) {
+                log.debug("Rate-limit bucket purge skipped: running on another node");
+            }
+        } catch (RuntimeException e) {
+            log.error("Rate-limit bucket purge failed: {}", e.getMessage());
+        }
+    }
+
+    /** Deletes every bucket last written more than one refill period ago; returns how many went. */
+    long purge() {
+        Timestamp idleSince = Timestamp.from(Instant.now().minus(refillPeriod));
+        long deleted = 0;
+        String after = "";
+        while (true) {
+            List<String> page = jdbcTemplate.queryForList(PAGE, String.class, after, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            String last = page.get(page.size() - 1);
+            deleted += jdbcTemplate.update(DELETE_IDLE, after, last, idleSince);
+
+            after = last;
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+
+        purged.increment(deleted);
+        if (deleted > 0) {
+            log.info("Purged {} idle rate-limit bucket(s)", deleted);
+        }
+        return deleted;
+    }
+}
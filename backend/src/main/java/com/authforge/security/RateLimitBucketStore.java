@@ -0,0 +1,86 @@
+package com.authforge.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Rate-limit buckets keyed by client, bounded in both time and size. A bucket idle for
+ * longer than its refill period would be full again anyway, so expiring it loses nothing;
+ * the entry cap keeps memory flat when a scan arrives from millions of addresses. Size and
+ * evictions are published as {@code cache.size} / {@code cache.evictions} with
+ * {@code cache=rate-limit.buckets}.
+ *
+ * <p>When a {@link ProxyManager} is available the cached entries are proxies to shared
+ * state, so every replica draws from the same bucket. Each proxy consumes locally and only
+ * synchronises after {@code sync-threshold} tokens or {@code sync-interval}, whichever comes
+ * first, so the database sees one round trip per batch rather than one per request.
+ */
+@Component
+public class RateLimitBucketStore {
+
+    static final String CACHE_NAME = "rate-limit.buckets";
+
+    private final Cache<String, Bucket> buckets;
+    private final ProxyManager<String> proxyManager;
+    private final Optimization optimization;
+
+    /** {@code ticker} falls back to the system clock when no {@link Ticker} bean is defined. */
+    public RateLimitBucketStore(
+            MeterRegistry meterRegistry,
+            Optional<ProxyManager<String>> proxyManager,
+            @Value("${authforge.rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${authforge.rate-limit.idle-timeout:60000}") long idleTimeoutMillis,
+            @Value("${authforge.rate-limit.sync-threshold:5}") long syncThreshold,
+            @Value("${authforge.rate-limit.sync-interval:500}") long syncIntervalMillis,
+            Optional<Ticker> ticker) {
+        this.proxyManager = proxyManager.orElse(null);
+        this.optimization = Optimizations.delaying(
+                new DelayParameters(syncThreshold, Duration.ofMillis(syncIntervalMillis)));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMillis(idleTimeoutMillis))
+                .ticker(ticker.orElseGet(Ticker::systemTicker))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+    }
+
+    public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+        return buckets.get(key, k -> create(k, configuration.get()));
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private Bucket create(String key, BucketConfiguration configuration) {
+        if (proxyManager != null) {
+            return proxyManager.builder()
+                    .withOptimization(optimization)
+                    .build(key, () -> configuration);
+        }
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+}
@@ -1,12 +1,17 @@
 package com.authforge.security;
 
-import io.github.bucket4j.Bandwidth;
+import com.authforge.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
@@ -14,18 +19,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    private final int requestsPerMinute;
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
 
-    public RateLimitFilter(@Value("${authforge.rate-limit.requests-per-minute:30}") int requestsPerMinute) {
-        this.requestsPerMinute = requestsPerMinute;
+    private static final int MAX_INSPECTED_BODY = 8192;
+
+    private final RateLimitBucketStore buckets;
+    private final RateLimitPolicies policies;
+    private final ObjectMapper objectMapper;
+    private final RateLimitMonitor monitor;
+
+    public RateLimitFilter(RateLimitBucketStore buckets, RateLimitProperties properties, ObjectMapper objectMapper,
+                           RateLimitMonitor monitor) {
+        this.buckets = buckets;
+        this.policies = new RateLimitPolicies(properties);
+        this.objectMapper = objectMapper;
+        this.monitor = monitor;
     }
 
     @Override
@@ -34,34 +49,97 @@ public class RateLimitFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-        String path = request.getRequestURI();
+        List<RateLimitPolicies.Policy> matched = policies.match(RequestPaths.of(request));
 
-        if (!path.startsWith("/api/auth/")) {
+        if (matched.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
         String clientIp = getClientIp(request);
-        Bucket bucket = buckets.computeIfAbsent(clientIp, k -> createBucket());
+        CachedBodyRequest cached = null;
+        String email = null;
 
-        if (bucket.tryConsume(1)) {
-            filterChain.doFilter(request, response);
-        } else {
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.getWriter().write(
-                    "{\"status\":429,\"error\":\"Too many requests. Please try again later.\"}");
+        RateLimitPolicies.Policy tightest = null;
+        ConsumptionProbe tightestProbe = null;
+        // Per-IP policies come first, so a client over its IP budget never gets its body read
+        for (RateLimitPolicies.Policy policy : matched) {
+            String key = policy.name() + ':' + clientIp;
+            if (policy.needsEmail()) {
+                if (cached == null) {
+                    cached = new CachedBodyRequest(request, MAX_INSPECTED_BODY);
+                    email = extractEmail(cached.head());
+                    request = cached;
+                }
+                if (email != null) {
+                    key += ':' + email;
+                }
+            }
+            ConsumptionProbe probe = tryConsume(buckets.resolve(key, policy::configuration));
+            if (probe == null) {
+                continue;
+            }
+            if (!probe.isConsumed()) {
+                monitor.rejected(policy.name(), clientIp);
+                reject(response, policy, probe);
+                return;
+            }
+            monitor.accepted(policy.name());
+            if (tightestProbe == null || probe.getRemainingTokens() < tightestProbe.getRemainingTokens()) {
+                tightest = policy;
+                tightestProbe = probe;
+            }
+        }
+
+        if (tightestProbe != null) {
+            writeLimitHeaders(response, tightest, tightestProbe);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, RateLimitPolicies.Policy policy, ConsumptionProbe probe)
+            throws IOException {
+        long retryAfter = Math.max(1, ceilSeconds(probe.getNanosToWaitForRefill()));
+        writeLimitHeaders(response, policy, probe);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too many requests. Please try again later.\","
+                + "\"policy\":\"" + policy.name() + "\",\"retryAfter\":" + retryAfter + "}");
+    }
+
+    private static void writeLimitHeaders(HttpServletResponse response, RateLimitPolicies.Policy policy,
+                                          ConsumptionProbe probe) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(policy.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(ceilSeconds(probe.getNanosToWaitForReset())));
+        response.setHeader("X-RateLimit-Policy", policy.name());
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private ConsumptionProbe tryConsume(Bucket bucket) {
+        try {
+            return bucket.tryConsumeAndReturnRemaining(1);
+        } catch (RuntimeException e) {
+            // Shared bucket store unreachable: fail open rather than lock everyone out
+            log.warn("Rate limit check failed, allowing request: {}", e.getMessage());
+            return null;
         }
     }
 
-    private Bucket createBucket() {
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(requestsPerMinute)
-                .refillGreedy(requestsPerMinute, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    private String extractEmail(byte[] body) {
+        if (body.length == 0 || body.length > MAX_INSPECTED_BODY) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     private String getClientIp(HttpServletRequest request) {
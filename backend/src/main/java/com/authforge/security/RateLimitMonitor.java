@@ -0,0 +1,66 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcome counters per rate-limit policy ({@code rate-limit.requests} tagged with
+ * {@code policy} and {@code outcome}) and a fixed-size view of the clients rejected most
+ * often. The offender view covers the current window only and is cleared every
+ * {@code heavy-hitters.window}, so a source that stops attacking drops out.
+ */
+@Component
+public class RateLimitMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final SpaceSavingCounter offenders;
+    private final Map<String, Counter> accepted = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+    private volatile Instant windowStart = Instant.now();
+
+    public RateLimitMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${authforge.rate-limit.heavy-hitters.capacity:100}") int capacity) {
+        this.meterRegistry = meterRegistry;
+        this.offenders = new SpaceSavingCounter(capacity);
+    }
+
+    public void accepted(String policy) {
+        accepted.computeIfAbsent(policy, p -> counter(p, "accepted")).increment();
+    }
+
+    public void rejected(String policy, String client) {
+        rejected.computeIfAbsent(policy, p -> counter(p, "rejected")).increment();
+        offenders.offer(client);
+    }
+
+    public List<SpaceSavingCounter.Entry> topOffenders(int limit) {
+        return offenders.top(limit);
+    }
+
+    public Instant windowStart() {
+        return windowStart;
+    }
+
+    @Scheduled(fixedDelayString = "${authforge.rate-limit.heavy-hitters.window:600000}",
+            initialDelayString = "${authforge.rate-limit.heavy-hitters.window:600000}")
+    public void resetWindow() {
+        offenders.clear();
+        windowStart = Instant.now();
+    }
+
+    private Counter counter(String policy, String outcome) {
+        return Counter.builder("rate-limit.requests")
+                .tag("policy", policy)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
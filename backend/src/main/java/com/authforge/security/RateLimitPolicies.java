@@ -0,0 +1,73 @@
+package com.authforge.security;
+
+import com.authforge.config.RateLimitProperties;
+import com.authforge.config.RateLimitProperties.KeyType;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate-limit policy table compiled once from {@link RateLimitProperties}: an exact-path map
+ * to the policies that apply there, plus a per-IP fallback for the rest of
+ * {@code /api/auth/}. Several policies may share a path, in which case a request must pass
+ * all of them. Bucket configurations are built here, so a request only pays for a map lookup.
+ */
+final class RateLimitPolicies {
+
+    static final String PROTECTED_PREFIX = "/api/auth/";
+    static final String DEFAULT_POLICY = "default";
+
+    record Policy(String name, KeyType key, int limit, BucketConfiguration configuration) {
+
+        boolean needsEmail() {
+            return key == KeyType.IP_EMAIL;
+        }
+    }
+
+    private final Map<String, List<Policy>> byPath;
+    private final List<Policy> fallback;
+
+    RateLimitPolicies(RateLimitProperties properties) {
+        Map<String, List<Policy>> paths = new HashMap<>();
+        for (RateLimitProperties.Policy configured : properties.getPolicies()) {
+            if (configured.getName() == null || configured.getRequestsPerMinute() <= 0) {
+                throw new IllegalStateException("Rate-limit policy needs a name and a positive requests-per-minute");
+            }
+            Policy policy = new Policy(configured.getName(), configured.getKey(),
+                    configured.getRequestsPerMinute(), perMinute(configured.getRequestsPerMinute()));
+            for (String path : configured.getPaths()) {
+                paths.computeIfAbsent(path, p -> new ArrayList<>()).add(policy);
+            }
+        }
+        // Per-IP policies first: they can reject a request before its body has to be read
+        paths.replaceAll((path, policies) -> policies.stream()
+                .sorted(Comparator.comparing(Policy::needsEmail))
+                .toList());
+        this.byPath = Map.copyOf(paths);
+        this.fallback = List.of(new Policy(DEFAULT_POLICY, KeyType.IP,
+                properties.getRequestsPerMinute(), perMinute(properties.getRequestsPerMinute())));
+    }
+
+    List<Policy> match(String path) {
+        List<Policy> policies = byPath.get(path);
+        if (policies != null) {
+            return policies;
+        }
+        return path.startsWith(PROTECTED_PREFIX) ? fallback : List.of();
+    }
+
+    private static BucketConfiguration perMinute(int requestsPerMinute) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(requestsPerMinute)
+                        .refillGreedy(requestsPerMinute, Duration.ofMinutes(1))
+                        .build())
+                .build();
+    }
+}
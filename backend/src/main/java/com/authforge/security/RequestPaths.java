@@ -0,0 +1,22 @@
+package com.authforge.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Resolves the path the limit filters match on. The raw request URI can spell one endpoint many
+ * ways ({@code /api/auth/%6cogin}, {@code /api/auth/login;x}, {@code //api/auth/login}), so it is
+ * decoded, stripped of path parameters and duplicate slashes, and made relative to the context
+ * path, the same way Spring MVC resolves the handler.
+ */
+final class RequestPaths {
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private RequestPaths() {
+    }
+
+    static String of(HttpServletRequest request) {
+        return PATH_HELPER.getPathWithinApplication(request);
+    }
+}
@@ -0,0 +1,63 @@
+package com.authforge.security;
+
+import com.authforge.repository.RevokedTokenRepository;
+import com.authforge.service.ScheduledJobLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes revocations whose tokens have expired, since an expired token is rejected anyway.
+ * Only one node purges at a time; every node still rebuilds its own filter from what is left.
+ */
+@Component
+public class RevokedTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenPurgeJob.class);
+    static final String LOCK_NAME = "revoked-token-purge";
+
+    private final RevokedTokenRepository repository;
+    private final ScheduledJobLock jobLock;
+    private final Counter purged;
+    private final Duration lockLease;
+
+    public RevokedTokenPurgeJob(
+            RevokedTokenRepository repository,
+            ScheduledJobLock jobLock,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.revocation.purge.lock-lease:600000}") long lockLeaseMillis) {
+        this.repository = repository;
+        this.jobLock = jobLock;
+        this.purged = meterRegistry.counter("jwt.revocation.purged");
+        this.lockLease = Duration.ofMillis(lockLeaseMillis);
+    }
+
+    @Scheduled(initialDelayString = "${authforge.jwt.revocation.purge.interval:3600000}",
+            fixedDelayString = "${authforge.jwt.revocation.purge.interval:3600000}")
+    public void run() {
+        try {
+            if (!jobLock.runExclusively(LOCK_NAME, lockLease, this::purge)) {
+                log.debug("Revoked-token purge skipped: running on another node");
+            }
+        } catch (RuntimeException e) {
+            log.error("Revoked-token purge failed: {}", e.getMessage());
+        }
+    }
+
+    /** Deletes every revocation that expired before now; returns how many went. */
+    long purge() {
+        int deleted = repository.deleteExpired(Instant.now());
+        purged.increment(deleted);
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocation(s)", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,69 @@
+package com.authforge.security;
+
+import com.authforge.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Tracks the current security version of each user for stateless authentication.
+ * A token is accepted while its version matches; the stored version is re-read at most
+ * once per check interval, which bounds how long a role change can go unnoticed. At most
+ * {@code max-tracked} users are cached, so the cache stays bounded however many users sign in.
+ */
+@Component
+public class SecurityVersionTracker {
+
+    static final String CACHE_NAME = "security.versions";
+
+    private final Cache<String, Long> versions;
+    private final UserRepository userRepository;
+
+    public SecurityVersionTracker(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.stateless.version-check-interval:60000}") long checkInterval,
+            @Value("${authforge.jwt.stateless.max-tracked:100000}") long maxTracked) {
+        if (checkInterval < 0) {
+            throw new IllegalArgumentException("version-check-interval must not be negative");
+        }
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(Duration.ofMillis(checkInterval))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+    }
+
+    /** An interval of {@code 0} expires entries immediately, so every call queries the database. */
+    public boolean isCurrent(String email, long tokenVersion) {
+        // Unknown users load as null, which Caffeine does not cache
+        Long current = versions.get(email, key -> userRepository.findSecurityVersionByEmail(key).orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Drops the cached version. Inside a transaction this waits for the commit; invalidating
+     * earlier would let a concurrent request cache the old version for another full interval.
+     */
+    public void invalidate(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.invalidate(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.invalidate(email);
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.authforge.security;
+
+import com.authforge.model.RefreshToken;
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Refresh tokens that are signed JWTs naming their user and session family, enabled with
+ * {@code authforge.jwt.refresh-signed.enabled}. A token younger than {@code rotate-after} is
+ * answered from its own claims: the family is checked against the in-memory revocation filter
+ * and the security version against {@link SecurityVersionTracker}, and nothing is written.
+ * Older tokens, and tokens whose claims are stale, go through the stored rotation so reuse is
+ * still detected. Revoked families are recorded in {@link TokenRevocationList}.
+ */
+@Component
+@ConditionalOnProperty(name = "authforge.jwt.refresh-signed.enabled", havingValue = "true")
+public class SignedRefreshTokens {
+
+    static final String FAMILY_PREFIX = "family:";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList revocationList;
+    private final SecurityVersionTracker securityVersionTracker;
+    private final Duration rotateAfter;
+    private final long refreshTokenExpiration;
+    private final Counter statelessRefreshes;
+
+    public SignedRefreshTokens(
+            JwtTokenProvider jwtTokenProvider,
+            TokenRevocationList revocationList,
+            SecurityVersionTracker securityVersionTracker,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.refresh-signed.rotate-after:86400000}") long rotateAfterMillis,
+            @Value("${authforge.jwt.refresh-token-expiration}") long refreshTokenExpiration) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.revocationList = revocationList;
+        this.securityVersionTracker = securityVersionTracker;
+        this.rotateAfter = Duration.ofMillis(rotateAfterMillis);
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.statelessRefreshes = meterRegistry.counter("auth.refresh.stateless");
+    }
+
+    /** Opaque tokens are base64url or UUIDs; only a JWT contains dots. */
+    public static boolean isSigned(String token) {
+        return token.indexOf('.') >= 0;
+    }
+
+    public String issue(RefreshToken refreshToken) {
+        return jwtTokenProvider.generateRefreshToken(
+                refreshToken.getUser(), refreshToken.getFamilyId(), refreshToken.getExpiryDate());
+    }
+
+    /**
+     * Returns the session's user when the token can be used again as it is. Only the authority
+     * fields an access token carries are set, all of them guarded by the security version; the
+     * profile is not. Empty means the rotation has to be recorded in the database.
+     */
+    public Optional<User> reuse(String token) {
+        ValidatedToken validated = jwtTokenProvider.validateRefreshToken(token)
+                .orElseThrow(() -> new com.authforge.exception.BadRequestException(
+                        "Invalid or expired refresh token. Please login again."));
+        if (validated.familyId() == null || validated.userId() == null
+                || revocationList.isRevoked(FAMILY_PREFIX + validated.familyId())) {
+            throw new com.authforge.exception.BadRequestException(
+                    "Refresh token has been revoked. Please login again.");
+        }
+
+        if (validated.issuedAt() == null || !validated.issuedAt().plus(rotateAfter).isAfter(Instant.now())
+                || !validated.hasAuthorityClaims() || !validated.enabled()
+                || !securityVersionTracker.isCurrent(validated.subject(), validated.securityVersion())) {
+            return Optional.empty();
+        }
+
+        statelessRefreshes.increment();
+        return Optional.of(User.builder()
+                .id(validated.userId())
+                .email(validated.subject())
+                .role(Role.valueOf(validated.role()))
+                .enabled(validated.enabled())
+                .securityVersion(validated.securityVersion())
+                .build());
+    }
+
+    /** Stops every signed token of the family, including ones never seen by the database. */
+    public void revokeFamily(String familyId) {
+        revocationList.revoke(FAMILY_PREFIX + familyId, Instant.now().plusMillis(refreshTokenExpiration));
+    }
+}
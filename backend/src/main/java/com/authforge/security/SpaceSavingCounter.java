@@ -0,0 +1,146 @@
+package com.authforge.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving top-k counter (Metwally et al.). Tracks at most {@code capacity} keys; a new
+ * key replaces the current minimum and inherits its count, recorded as the error bound.
+ * Any key whose true frequency exceeds {@code total / capacity} is guaranteed to be present.
+ *
+ * <p>Offers are spread over per-thread stripes, each its own sketch with its own lock, so a
+ * flood of rejections does not serialise request threads on one monitor. {@link #top} merges
+ * the stripes (Agarwal et al., mergeable summaries): a key missing from a full stripe is
+ * credited with that stripe's minimum, both as count and as error, which keeps the bounds.
+ */
+public final class SpaceSavingCounter {
+
+    public record Entry(String key, long count, long error) {
+    }
+
+    private static final Comparator<Entry> BY_COUNT_DESC =
+            Comparator.comparingLong(Entry::count).reversed();
+
+    private final int capacity;
+    private final Sketch[] stripes;
+    private final int mask;
+
+    public SpaceSavingCounter(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    SpaceSavingCounter(int capacity, int stripes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int count = Integer.highestOneBit(Math.max(1, Math.min(stripes, 64)) * 2 - 1);
+        this.capacity = capacity;
+        this.stripes = new Sketch[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Sketch(capacity);
+        }
+    }
+
+    public void offer(String key) {
+        stripes[(int) Thread.currentThread().threadId() & mask].offer(key);
+    }
+
+    public List<Entry> top(int limit) {
+        Map<String, long[]> merged = new HashMap<>();
+        long floors = 0;
+        for (Sketch stripe : stripes) {
+            Sketch.Snapshot snapshot = stripe.snapshot();
+            floors += snapshot.floor();
+            for (Entry entry : snapshot.entries()) {
+                long[] sums = merged.computeIfAbsent(entry.key(), k -> new long[2]);
+                sums[0] += entry.count() - snapshot.floor();
+                sums[1] += entry.error() - snapshot.floor();
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>(merged.size());
+        for (Map.Entry<String, long[]> e : merged.entrySet()) {
+            entries.add(new Entry(e.getKey(), e.getValue()[0] + floors, e.getValue()[1] + floors));
+        }
+        entries.sort(BY_COUNT_DESC);
+        return List.copyOf(entries.subList(0, Math.min(Math.min(limit, capacity), entries.size())));
+    }
+
+    public void clear() {
+        for (Sketch stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /** One single-lock Space-Saving sketch. */
+    private static final class Sketch {
+
+        record Snapshot(List<Entry> entries, long floor) {
+        }
+
+        private static final class Slot {
+            final long sequence;
+            final String key;
+            long count;
+            long error;
+
+            Slot(long sequence, String key, long count, long error) {
+                this.sequence = sequence;
+                this.key = key;
+                this.count = count;
+                this.error = error;
+            }
+        }
+
+        private static final Comparator<Slot> BY_COUNT = Comparator
+                .comparingLong((Slot s) -> s.count)
+                .thenComparingLong(s -> s.sequence);
+
+        private final int capacity;
+        private final Map<String, Slot> slots;
+        private final TreeSet<Slot> ordered = new TreeSet<>(BY_COUNT);
+        private long sequence;
+
+        Sketch(int capacity) {
+            this.capacity = capacity;
+            this.slots = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void offer(String key) {
+            Slot slot = slots.get(key);
+            if (slot == null && slots.size() < capacity) {
+                slot = new Slot(sequence++, key, 0, 0);
+                slots.put(key, slot);
+            } else if (slot == null) {
+                Slot min = ordered.pollFirst();
+                slots.remove(min.key);
+                slot = new Slot(sequence++, key, min.count, min.count);
+                slots.put(key, slot);
+            } else {
+                ordered.remove(slot);
+            }
+            slot.count++;
+            ordered.add(slot);
+        }
+
+        /** Entries plus the count any untracked key may have reached: the minimum once full, else 0. */
+        synchronized Snapshot snapshot() {
+            List<Entry> entries = new ArrayList<>(slots.size());
+            for (Slot slot : ordered) {
+                entries.add(new Entry(slot.key, slot.count, slot.error));
+            }
+            long floor = slots.size() < capacity ? 0 : ordered.first().count;
+            return new Snapshot(entries, floor);
+        }
+
+        synchronized void clear() {
+            slots.clear();
+            ordered.clear();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.authforge.security;
+
+import com.authforge.model.RevokedToken;
+import com.authforge.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revoked access tokens, identified by {@code jti}. The database table is authoritative; a
+ * Bloom filter in front of it answers "not revoked" for almost every request without a
+ * query, and only probable positives are confirmed against the table. Revocations from
+ * other nodes are picked up incrementally, and the filter is periodically rebuilt from the
+ * unexpired rows so expired entries stop occupying it. Rebuilding only reads; expired rows
+ * are deleted by {@link RevokedTokenPurgeJob}.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository repository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Counter exactLookups;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile Instant watermark;
+
+    public TokenRevocationList(
+            RevokedTokenRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+            @Value("${authforge.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.exactLookups = meterRegistry.counter("jwt.revocation.lookups");
+        this.falsePositives = meterRegistry.counter("jwt.revocation.false-positives");
+        rebuild();
+    }
+
+    public boolean isRevoked(ValidatedToken token) {
+        return isRevoked(token.tokenId());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        exactLookups.increment();
+        boolean revoked = repository.existsById(tokenId);
+        if (!revoked) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    public void revoke(ValidatedToken token) {
+        revoke(token.tokenId(), token.expiresAt());
+    }
+
+    /** Revokes any identifier, such as a refresh-token family, until {@code expiresAt}. */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+
+        repository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .revokedAt(Instant.now())
+                .build());
+        filter.put(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${authforge.jwt.revocation.refresh-interval:5000}")
+    public void refresh() {
+        try {
+            addRevokedSince(watermark);
+        } catch (RuntimeException e) {
+            log.error("Revocation list refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${authforge.jwt.revocation.rebuild-interval:3600000}",
+            fixedDelayString = "${authforge.jwt.revocation.rebuild-interval:3600000}")
+    public void rebuild() {
+        Instant since = Instant.now();
+        List<String> tokenIds = repository.findUnexpiredTokenIds(since);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, 2L * tokenIds.size()), falsePositiveRate);
+        tokenIds.forEach(rebuilt::put);
+        filter = rebuilt;
+        watermark = since;
+
+        // Catch revocations saved while the snapshot was being read.
+        addRevokedSince(since);
+        log.debug("Rebuilt revocation filter with {} token id(s)", tokenIds.size());
+    }
+
+    private synchronized void addRevokedSince(Instant since) {
+        Instant latest = since;
+        for (RevokedToken revoked : repository.findByRevokedAtGreaterThanEqual(since.minus(CLOCK_SKEW))) {
+            filter.put(revoked.getTokenId());
+            if (revoked.getRevokedAt().isAfter(latest)) {
+                latest = revoked.getRevokedAt();
+            }
+        }
+        watermark = latest;
+    }
+}
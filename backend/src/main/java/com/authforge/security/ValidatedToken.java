@@ -0,0 +1,84 @@
+package com.authforge.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of an access or signed refresh token whose signature and expiry have already
+ * been verified.
+ */
+public record ValidatedToken(
+        String subject,
+        Instant issuedAt,
+        Instant expiresAt,
+        Map<String, Object> claims) {
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String ENABLED_CLAIM = "enabled";
+    public static final String SECURITY_VERSION_CLAIM = "sv";
+    public static final String CLIENT_ID_CLAIM = "client_id";
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String REFRESH_TOKEN_USE = "refresh";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String FAMILY_CLAIM = "fam";
+
+    public ValidatedToken {
+        claims = Map.copyOf(claims);
+    }
+
+    public boolean hasAuthorityClaims() {
+        return claims.get(ROLE_CLAIM) instanceof String
+                && claims.get(ENABLED_CLAIM) instanceof Boolean
+                && claims.get(SECURITY_VERSION_CLAIM) instanceof Number;
+    }
+
+    public boolean isClientToken() {
+        return claims.get(CLIENT_ID_CLAIM) instanceof String;
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TOKEN_USE.equals(claims.get(TOKEN_USE_CLAIM));
+    }
+
+    public List<String> scopes() {
+        return claims.get(SCOPE_CLAIM) instanceof String scope && !scope.isBlank()
+                ? List.of(scope.trim().split("\\s+"))
+                : List.of();
+    }
+
+    public String tokenId() {
+        return (String) claims.get(Claims.ID);
+    }
+
+    public String role() {
+        return (String) claims.get(ROLE_CLAIM);
+    }
+
+    public boolean enabled() {
+        return Boolean.TRUE.equals(claims.get(ENABLED_CLAIM));
+    }
+
+    public long securityVersion() {
+        return ((Number) claims.get(SECURITY_VERSION_CLAIM)).longValue();
+    }
+
+    public Long userId() {
+        return claims.get(USER_ID_CLAIM) instanceof Number id ? id.longValue() : null;
+    }
+
+    public String familyId() {
+        return (String) claims.get(FAMILY_CLAIM);
+    }
+
+    static ValidatedToken from(Claims claims) {
+        return new ValidatedToken(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims);
+    }
+}
@@ -0,0 +1,110 @@
+package com.authforge.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Optional cache of already verified access tokens, keyed by the SHA-256 digest of the
+ * compact token. Each entry expires at the token's own {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Cache<ByteBuffer, ValidatedToken> cache;
+
+    public VerifiedTokenCache(
+            JwtTokenProvider jwtTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.cache.enabled:false}") boolean enabled,
+            @Value("${authforge.jwt.cache.max-entries:100000}") long maxEntries) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.cache = enabled ? buildCache(maxEntries) : null;
+
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    public Optional<ValidatedToken> validate(String token) {
+        if (cache == null) {
+            return jwtTokenProvider.validate(token);
+        }
+
+        ByteBuffer key = digest(token);
+        ValidatedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<ValidatedToken> validated = jwtTokenProvider.validate(token);
+        validated.filter(t -> t.expiresAt() != null && t.expiresAt().isAfter(Instant.now()))
+                .ifPresent(t -> cache.put(key, t));
+        return validated;
+    }
+
+    @EventListener
+    public void onKeyRingChanged(JwtKeyRing.KeyRingChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private static Cache<ByteBuffer, ValidatedToken> buildCache(long maxEntries) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<ByteBuffer, ValidatedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, ValidatedToken value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, ValidatedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, ValidatedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
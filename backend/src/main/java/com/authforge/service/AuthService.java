@@ -6,17 +6,21 @@ import com.authforge.model.RefreshToken;
 import com.authforge.model.Role;
 import com.authforge.model.User;
 import com.authforge.repository.UserRepository;
+import com.authforge.security.AuthenticatedUser;
 import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.LoginAttemptTracker;
+import com.authforge.security.TokenRevocationList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -24,6 +28,9 @@ public class AuthService {
 
         private static final Logger log = LoggerFactory.getLogger(AuthService.class);
         private static final String USER_NOT_FOUND = "User not found";
+        private static final String LOGIN_THROTTLED = "Too many failed login attempts. Try again later.";
+        private static final String PASSWORD_BREACHED =
+                        "This password has appeared in a data breach. Please choose a different one.";
 
         private final UserRepository userRepository;
         private final PasswordEncoder passwordEncoder;
@@ -33,6 +40,9 @@ public class AuthService {
         private final TotpService totpService;
         private final EmailService emailService;
         private final FeatureFlags featureFlags;
+        private final TokenRevocationList tokenRevocationList;
+        private final LoginAttemptTracker loginAttemptTracker;
+        private final BreachedPasswordService breachedPasswordService;
 
         public AuthService(
                         UserRepository userRepository,
@@ -42,7 +52,10 @@ public class AuthService {
                         AuthenticationManager authenticationManager,
                         TotpService totpService,
                         EmailService emailService,
-                        FeatureFlags featureFlags) {
+                        FeatureFlags featureFlags,
+                        TokenRevocationList tokenRevocationList,
+                        LoginAttemptTracker loginAttemptTracker,
+                        BreachedPasswordService breachedPasswordService) {
                 this.userRepository = userRepository;
                 this.passwordEncoder = passwordEncoder;
                 this.jwtTokenProvider = jwtTokenProvider;
@@ -51,6 +64,9 @@ public class AuthService {
                 this.totpService = totpService;
                 this.emailService = emailService;
                 this.featureFlags = featureFlags;
+                this.tokenRevocationList = tokenRevocationList;
+                this.loginAttemptTracker = loginAttemptTracker;
+                this.breachedPasswordService = breachedPasswordService;
         }
 
         @Transactional
@@ -59,6 +75,7 @@ public class AuthService {
                         throw new com.authforge.exception.BadRequestException(
                                         "Email already registered: " + request.getEmail());
                 }
+                rejectBreachedPassword(request.getPassword());
 
                 User user = User.builder()
                                 .name(request.getName())
@@ -92,14 +109,32 @@ public class AuthService {
         }
 
         public AuthResponse login(LoginRequest request) {
-                authenticationManager.authenticate(
-                                new UsernamePasswordAuthenticationToken(
-                                                request.getEmail(),
-                                                request.getPassword()));
+                long retryAfter = loginAttemptTracker.tryAcquire(request.getEmail());
+                if (retryAfter > 0) {
+                        throw new com.authforge.exception.TooManyAttemptsException(LOGIN_THROTTLED, retryAfter);
+                }
 
-                User user = userRepository.findByEmail(request.getEmail())
-                                .orElseThrow(() -> new com.authforge.exception.ResourceNotFoundException(
-                                                USER_NOT_FOUND));
+                Authentication authentication;
+                try {
+                        authentication = authenticationManager.authenticate(
+                                        new UsernamePasswordAuthenticationToken(
+                                                        request.getEmail(),
+                                                        request.getPassword()));
+                } catch (BadCredentialsException e) {
+                        loginAttemptTracker.recordFailure(request.getEmail());
+                        throw e;
+                } catch (RuntimeException e) {
+                        loginAttemptTracker.release(request.getEmail());
+                        throw e;
+                }
+                loginAttemptTracker.recordSuccess(request.getEmail());
+
+                User user = authenticatedUser(authentication, request.getEmail());
+
+                if (user.getLockedUntil() != null) {
+                        user.setLockedUntil(null);
+                        userRepository.updateLockedUntil(user.getEmail(), null);
+                }
 
                 if (featureFlags.isEmailVerification() && !user.isEmailVerified()) {
                         throw new com.authforge.exception.BadRequestException(
@@ -154,27 +189,41 @@ public class AuthService {
                 log.info("Email verified for: {}", user.getEmail());
         }
 
-        @Transactional
         public AuthResponse refreshToken(TokenRefreshRequest request) {
-                RefreshToken refreshToken = refreshTokenService
-                                .findByToken(request.getRefreshToken())
-                                .orElseThrow(() -> new com.authforge.exception.ResourceNotFoundException(
-                                                "Refresh token not found"));
-
-                refreshTokenService.verifyExpiration(refreshToken);
-
-                User user = refreshToken.getUser();
+                String presented = request.getRefreshToken();
+                Optional<User> user = refreshTokenService.reuse(presented);
+                if (user.isPresent()) {
+                        // Signed token not yet due for rotation: keep it, nothing to record. The user
+                        // holds authority claims only, so no profile goes back that could be stale.
+                        return tokenResponse(user.get(), presented).build();
+                }
 
-                return generateAuthResponse(user);
+                RefreshToken refreshToken = refreshTokenService.rotate(presented);
+                return authResponse(refreshToken.getUser(), refreshToken.getToken());
         }
 
+        /**
+         * Ends the session the given refresh token belongs to, or every session of the user when
+         * no refresh token is supplied.
+         */
         @Transactional
-        public void logout(String email) {
+        public void logout(String email, String accessToken, String refreshToken) {
                 User user = userRepository.findByEmail(email)
                                 .orElseThrow(() -> new com.authforge.exception.ResourceNotFoundException(
                                                 USER_NOT_FOUND));
 
-                refreshTokenService.deleteByUser(user);
+                if (refreshToken != null && !refreshToken.isBlank()) {
+                        refreshTokenService.findByToken(refreshToken)
+                                        .ifPresent(token -> refreshTokenService.revokeSession(user, token));
+                } else {
+                        refreshTokenService.deleteByUser(user);
+                }
+
+                if (accessToken != null) {
+                        jwtTokenProvider.validate(accessToken)
+                                        .filter(token -> email.equals(token.subject()))
+                                        .ifPresent(tokenRevocationList::revoke);
+                }
                 log.info("User logged out: {}", email);
         }
 
@@ -203,6 +252,7 @@ public class AuthService {
                 User user = userRepository.findByVerificationToken(request.getToken())
                                 .orElseThrow(() -> new com.authforge.exception.BadRequestException(
                                                 "Invalid or expired reset token"));
+                rejectBreachedPassword(request.getNewPassword());
 
                 user.setPassword(passwordEncoder.encode(request.getNewPassword()));
                 user.setVerificationToken(null);
@@ -211,21 +261,28 @@ public class AuthService {
                 log.info("Password reset for: {}", user.getEmail());
         }
 
-        private AuthResponse generateAuthResponse(User user) {
-                UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getEmail())
-                                .password(user.getPassword() != null ? user.getPassword() : "")
-                                .roles(user.getRole().name())
-                                .build();
+        private User authenticatedUser(Authentication authentication, String email) {
+                // CustomUserDetailsService already loaded the row; reuse it rather than query again
+                if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+                        return principal.getUser();
+                }
+                return userRepository.findByEmail(email)
+                                .orElseThrow(() -> new com.authforge.exception.ResourceNotFoundException(
+                                                USER_NOT_FOUND));
+        }
 
-                String accessToken = jwtTokenProvider.generateAccessToken(userDetails);
-                RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        private void rejectBreachedPassword(String password) {
+                if (breachedPasswordService.isBreached(password)) {
+                        throw new com.authforge.exception.BadRequestException(PASSWORD_BREACHED);
+                }
+        }
 
-                return AuthResponse.builder()
-                                .accessToken(accessToken)
-                                .refreshToken(refreshToken.getToken())
-                                .tokenType("Bearer")
-                                .expiresIn(jwtTokenProvider.getAccessTokenExpiration())
+        private AuthResponse generateAuthResponse(User user) {
+                return authResponse(user, refreshTokenService.createRefreshToken(user).getToken());
+        }
+
+        private AuthResponse authResponse(User user, String refreshToken) {
+                return tokenResponse(user, refreshToken)
                                 .user(AuthResponse.UserDto.builder()
                                                 .id(user.getId())
                                                 .name(user.getName())
@@ -235,4 +292,12 @@ public class AuthService {
                                                 .build())
                                 .build();
         }
+
+        private AuthResponse.AuthResponseBuilder tokenResponse(User user, String refreshToken) {
+                return AuthResponse.builder()
+                                .accessToken(jwtTokenProvider.generateAccessToken(user))
+                                .refreshToken(refreshToken)
+                                .tokenType("Bearer")
+                                .expiresIn(jwtTokenProvider.getAccessTokenExpiration());
+        }
 }
@@ -0,0 +1,77 @@
+package com.authforge.service;
+
+import com.authforge.security.BreachedPasswordFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Rejects passwords that appear in a local breach corpus (see {@link BreachedPasswordFile}).
+ * Disabled when {@code authforge.breached-passwords.file} is empty; a configured file that
+ * cannot be opened fails startup rather than silently turning the check off.
+ */
+@Service
+public class BreachedPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(BreachedPasswordService.class);
+
+    private final BreachedPasswordFile file;
+    private final Timer lookups;
+    private final Counter rejected;
+
+    public BreachedPasswordService(
+            MeterRegistry meterRegistry,
+            @Value("${authforge.breached-passwords.file:}") String path) {
+        this.file = open(path);
+        this.lookups = Timer.builder("auth.breached-password.lookup").register(meterRegistry);
+        this.rejected = Counter.builder("auth.breached-password.rejected").register(meterRegistry);
+    }
+
+    private static BreachedPasswordFile open(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            BreachedPasswordFile file = BreachedPasswordFile.open(Path.of(path));
+            log.info("Breached-password check enabled: {} hashes from {}", file.size(), path);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open breached-password file " + path, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    public boolean isBreached(String password) {
+        if (file == null) {
+            return false;
+        }
+        byte[] digest = sha1(password);
+        boolean breached = lookups.record(() -> file.contains(digest));
+        if (breached) {
+            rejected.increment();
+        }
+        return breached;
+    }
+
+    private static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
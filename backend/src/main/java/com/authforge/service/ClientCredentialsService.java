@@ -0,0 +1,191 @@
+package com.authforge.service;
+
+import com.authforge.dto.ClientTokenResponse;
+import com.authforge.dto.ServiceClientResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.exception.ResourceNotFoundException;
+import com.authforge.model.ServiceClient;
+import com.authforge.repository.ServiceClientRepository;
+import com.authforge.security.JwtKeyRing;
+import com.authforge.security.JwtTokenProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Machine clients and the OAuth2 {@code client_credentials} grant. Client secrets are
+ * 256-bit random values, so they are stored as SHA-256 digests rather than BCrypt hashes
+ * and never compete with user logins for CPU. An unexpired token already issued for the
+ * same client and scope is handed out again instead of minting a new one.
+ */
+@Service
+public class ClientCredentialsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientCredentialsService.class);
+    private static final String INVALID_CLIENT = "Invalid client credentials";
+    private static final Pattern SCOPE = Pattern.compile("[A-Za-z0-9:._-]+");
+
+    private record IssueKey(String clientId, String scope) {
+    }
+
+    private record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private final ServiceClientRepository clientRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final long tokenExpiration;
+    private final Cache<IssueKey, IssuedToken> issuedTokens;
+    private final SecureRandom random = new SecureRandom();
+
+    public ClientCredentialsService(
+            ServiceClientRepository clientRepository,
+            JwtTokenProvider jwtTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.clients.access-token-expiration:300000}") long tokenExpiration) {
+        this.clientRepository = clientRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenExpiration = tokenExpiration;
+        // Reuse a token for the first half of its life, so callers always get at least half.
+        this.issuedTokens = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tokenExpiration / 2))
+                .maximumSize(10000)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, issuedTokens, "oauth2.client-tokens");
+    }
+
+    public ClientTokenResponse issueToken(String clientId, String clientSecret, String requestedScope) {
+        if (clientId == null || clientSecret == null) {
+            throw new BadRequestException(INVALID_CLIENT);
+        }
+
+        ServiceClient client = clientRepository.findByClientId(clientId)
+                .filter(ServiceClient::isEnabled)
+                .filter(c -> secretMatches(clientSecret, c.getSecretHash()))
+                .orElseThrow(() -> new BadRequestException(INVALID_CLIENT));
+
+        String scope = grantedScope(client, requestedScope);
+        IssuedToken issued = issuedTokens.get(new IssueKey(clientId, scope), key -> {
+            Instant expiresAt = Instant.now().plusMillis(tokenExpiration);
+            return new IssuedToken(jwtTokenProvider.generateClientToken(clientId, scope, expiresAt), expiresAt);
+        });
+
+        return ClientTokenResponse.builder()
+                .accessToken(issued.token())
+                .tokenType("Bearer")
+                .expiresIn(Math.max(0, Duration.between(Instant.now(), issued.expiresAt()).toSeconds()))
+                .scope(scope)
+                .build();
+    }
+
+    @Transactional
+    public ServiceClientResponse createClient(String name, List<String> scopes) {
+        Set<String> allowed = new TreeSet<>(scopes);
+        if (!allowed.stream().allMatch(s -> SCOPE.matcher(s).matches())) {
+            throw new BadRequestException("Invalid scope");
+        }
+
+        String clientId = "svc_" + randomToken(12);
+        String secret = randomToken(32);
+
+        ServiceClient client = clientRepository.save(ServiceClient.builder()
+                .clientId(clientId)
+                .secretHash(hash(secret))
+                .name(name)
+                .scopes(String.join(" ", allowed))
+                .build());
+        log.info("Service client created: {} ({})", client.getClientId(), name);
+
+        ServiceClientResponse response = toResponse(client);
+        response.setClientSecret(secret);
+        return response;
+    }
+
+    public List<ServiceClientResponse> getAllClients() {
+        return clientRepository.findAll().stream()
+                .map(ClientCredentialsService::toResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void deleteClient(String clientId) {
+        ServiceClient client = clientRepository.findByClientId(clientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Client not found: " + clientId));
+
+        clientRepository.delete(client);
+        issuedTokens.asMap().keySet().removeIf(key -> key.clientId().equals(clientId));
+        log.info("Service client deleted: {}", clientId);
+    }
+
+    @EventListener
+    public void onKeyRingChanged(JwtKeyRing.KeyRingChangedEvent event) {
+        issuedTokens.invalidateAll();
+    }
+
+    private static String grantedScope(ServiceClient client, String requestedScope) {
+        Set<String> allowed = scopes(client.getScopes());
+        if (requestedScope == null || requestedScope.isBlank()) {
+            return String.join(" ", allowed);
+        }
+
+        Set<String> requested = scopes(requestedScope);
+        if (!allowed.containsAll(requested)) {
+            throw new BadRequestException("Requested scope is not allowed for this client");
+        }
+        return String.join(" ", requested);
+    }
+
+    private static Set<String> scopes(String scopes) {
+        return new TreeSet<>(Arrays.stream(scopes.trim().split("\\s+")).filter(s -> !s.isEmpty()).toList());
+    }
+
+    private static ServiceClientResponse toResponse(ServiceClient client) {
+        return ServiceClientResponse.builder()
+                .clientId(client.getClientId())
+                .name(client.getName())
+                .scopes(List.copyOf(scopes(client.getScopes())))
+                .enabled(client.isEnabled())
+                .build();
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    private static boolean secretMatches(String secret, String expectedHash) {
+        return MessageDigest.isEqual(
+                hash(secret).getBytes(StandardCharsets.US_ASCII),
+                expectedHash.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,16 +2,19 @@ package com.authforge.service;
 
 import com.authforge.model.User;
 import com.authforge.repository.UserRepository;
+import com.authforge.security.AuthenticatedUser;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -24,11 +27,24 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
+        return new AuthenticatedUser(
+                user,
                 user.getPassword() != null && !user.getPassword().isEmpty() ? user.getPassword() : "oauth2-user",
-                user.isEnabled(),
-                true, true, true,
+                user.getLockedUntil() == null || user.getLockedUntil().isBefore(Instant.now()),
                 List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        // Called after a successful login whose stored hash is below the current target
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof AuthenticatedUser authenticated) {
+            authenticated.getUser().setPassword(newPassword);
+            return new AuthenticatedUser(authenticated.getUser(), newPassword, authenticated.isAccountNonLocked(),
+                    authenticated.getAuthorities());
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,122 @@
+package com.authforge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Daily range partitions of {@code refresh_tokens} by {@code expiry_date}, for PostgreSQL
+ * databases that have switched to the layout in {@code db/refresh-tokens-partitioned.sql}.
+ * Partitions are created ahead of the longest refresh-token lifetime. A partition is dropped
+ * once its whole day has passed, since then every row in it has expired.
+ */
+@Component
+public class RefreshTokenPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPartitions.class);
+    static final String PREFIX = "refresh_tokens_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String IS_PARTITIONED = """
+            select count(*)
+            from pg_partitioned_table pt
+            join pg_class c on c.oid = pt.partrelid
+            where c.relname = 'refresh_tokens'
+              and c.relnamespace = (select oid from pg_namespace where nspname = current_schema)
+            """;
+
+    private static final String PARTITIONS = """
+            select c.relname
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            join pg_class p on p.oid = i.inhparent
+            where p.relname = 'refresh_tokens'
+              and p.relnamespace = (select oid from pg_namespace where nspname = current_schema)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean warned;
+
+    public RefreshTokenPartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Creates partitions up to {@code daysAhead} days out and drops the fully expired ones. */
+    public void maintain(Instant now, int daysAhead) {
+        if (!isPartitioned()) {
+            if (!warned) {
+                warned = true;
+                log.warn("Refresh-token partitioning is enabled but refresh_tokens is not a partitioned table; "
+                        + "apply db/refresh-tokens-partitioned.sql first");
+            }
+            return;
+        }
+
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        List<String> existing = jdbcTemplate.queryForList(PARTITIONS, String.class);
+        for (LocalDate day : missing(existing, today, daysAhead)) {
+            try {
+                jdbcTemplate.execute("create table if not exists " + name(day) + " partition of refresh_tokens "
+                        + "for values from ('" + day + " 00:00:00+00') to ('" + day.plusDays(1) + " 00:00:00+00')");
+                log.info("Created refresh-token partition {}", name(day));
+            } catch (DataAccessException e) {
+                // The default partition already holds rows for that day; they are purged row by row.
+                log.warn("Could not create refresh-token partition {}: {}", name(day), e.getMessage());
+            }
+        }
+        for (String partition : expired(existing, today)) {
+            jdbcTemplate.execute("drop table if exists " + partition);
+            log.info("Dropped expired refresh-token partition {}", partition);
+        }
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class);
+        return count != null && count > 0;
+    }
+
+    static String name(LocalDate day) {
+        return PREFIX + SUFFIX.format(day);
+    }
+
+    static List<LocalDate> missing(List<String> existing, LocalDate today, int daysAhead) {
+        List<LocalDate> missing = new ArrayList<>();
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            if (!existing.contains(name(day))) {
+                missing.add(day);
+            }
+        }
+        return missing;
+    }
+
+    /** Daily partitions whose upper bound is at or before the start of {@code today}. */
+    static List<String> expired(List<String> existing, LocalDate today) {
+        return existing.stream()
+                .filter(partition -> day(partition).map(day -> day.isBefore(today)).orElse(false))
+                .sorted()
+                .toList();
+    }
+
+    private static Optional<LocalDate> day(String partition) {
+        if (!partition.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDate.parse(partition.substring(PREFIX.length()), SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.authforge.service;
+
+import com.authforge.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Deletes expired refresh tokens that nobody presents again, and rotated ones once
+ * {@code rotated-grace} has passed; until then a rotated token presented again still trips reuse
+ * detection, afterwards it is simply unknown. Rows go in batches of
+ * {@code batch-size}, each in its own short transaction, so the purge never holds locks on
+ * much of the table; a run stops after {@code max-batches} and the next one picks up the rest.
+ * Only one node purges at a time. With {@code partitioned} on, whole expired partitions are
+ * dropped first and the batched delete only sweeps up the current day.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+    static final String LOCK_NAME = "refresh-token-purge";
+
+    private final RefreshTokenRepository repository;
+    private final ScheduledJobLock jobLock;
+    private final RefreshTokenPartitions partitions;
+    private final Counter purged;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration lockLease;
+    private final Duration rotatedGrace;
+    private final boolean partitioned;
+    private final int partitionDaysAhead;
+
+    public RefreshTokenPurgeJob(
+            RefreshTokenRepository repository,
+            ScheduledJobLock jobLock,
+            RefreshTokenPartitions partitions,
+            MeterRegistry meterRegistry,
+            @Value("${authforge.jwt.refresh-purge.enabled:true}") boolean enabled,
+            @Value("${authforge.jwt.refresh-purge.batch-size:1000}") int batchSize,
+            @Value("${authforge.jwt.refresh-purge.max-batches:100}") int maxBatches,
+            @Value("${authforge.jwt.refresh-purge.lock-lease:600000}") long lockLeaseMillis,
+            @Value("${authforge.jwt.refresh-purge.rotated-grace:3600000}") long rotatedGraceMillis,
+            @Value("${authforge.jwt.refresh-purge.partitioned:false}") boolean partitioned,
+            @Value("${authforge.jwt.refresh-token-expiration}") long refreshTokenExpiration) {
+        this.repository = repository;
+        this.jobLock = jobLock;
+        this.partitions = partitions;
+        this.purged = meterRegistry.counter("auth.refresh.purged");
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.lockLease = Duration.ofMillis(lockLeaseMillis);
+        this.rotatedGrace = Duration.ofMillis(rotatedGraceMillis);
+        this.partitioned = partitioned;
+        // One spare day so a token issued just before midnight still has a partition to land in.
+        this.partitionDaysAhead = (int) Duration.ofMillis(refreshTokenExpiration).toDays() + 1;
+    }
+
+    @Scheduled(initialDelayString = "${authforge.jwt.refresh-purge.interval:600000}",
+            fixedDelayString = "${authforge.jwt.refresh-purge.interval:600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!jobLock.runExclusively(LOCK_NAME, lockLease, this::purge)) {
+                log.debug("Refresh-token purge skipped: running on another node");
+            }
+        } catch (RuntimeException e) {
+            log.error("Refresh-token purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Purges up to {@code max-batches} batches of expired tokens, then of rotated tokens past
+     * their grace period, and returns how many went.
+     */
+    long purge() {
+        Instant now = Instant.now();
+        if (partitioned) {
+            partitions.maintain(now, partitionDaysAhead);
+        }
+
+        int[] batches = {0};
+        long expired = deleteInBatches(page -> repository.findExpiredIds(now, page), batches);
+        long rotated = deleteInBatches(page -> repository.findRotatedIds(now.minus(rotatedGrace), page), batches);
+
+        purged.increment(expired + rotated);
+        if (expired + rotated > 0) {
+            log.info("Purged {} expired and {} rotated refresh token(s)", expired, rotated);
+        }
+        return expired + rotated;
+    }
+
+    private long deleteInBatches(Function<Pageable, List<Long>> nextBatch, int[] batches) {
+        long deleted = 0;
+        while (batches[0] < maxBatches) {
+            batches[0]++;
+            List<Long> ids = nextBatch.apply(Pageable.ofSize(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            repository.deleteAllByIdInBatch(ids);
+            deleted += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
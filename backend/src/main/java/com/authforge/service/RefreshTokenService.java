@@ -1,57 +1,223 @@
 package com.authforge.service;
 
+import com.authforge.exception.BadRequestException;
+import com.authforge.exception.ResourceNotFoundException;
 import com.authforge.model.RefreshToken;
 import com.authforge.model.User;
 import com.authforge.repository.RefreshTokenRepository;
+import com.authforge.security.SignedRefreshTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Refresh tokens grouped into one family per login session, so a user can stay signed in on
+ * several devices. Each refresh marks the presented token as rotated and issues its successor
+ * in the same family. A rotated token presented again can only be a copy, so the whole family is
+ * revoked and the device has to log in again.
+ *
+ * <p>Tokens are opaque random values of which only a digest is stored, or, with
+ * {@link SignedRefreshTokens} enabled, signed JWTs that most refreshes can verify without the
+ * database.
+ */
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int MAX_USER_AGENT = 255;
+    private static final int TOKEN_BYTES = 32;
+    private static final int LEGACY_TOKEN_LENGTH = 36;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     private final RefreshTokenRepository repository;
+    private final SignedRefreshTokens signedTokens;
     private final long refreshTokenExpiration;
+    private final Counter reuseDetected;
 
+    /** {@code signedTokens} is empty unless signed refresh tokens are enabled. */
     public RefreshTokenService(
             RefreshTokenRepository repository,
+            MeterRegistry meterRegistry,
+            Optional<SignedRefreshTokens> signedTokens,
             @Value("${authforge.jwt.refresh-token-expiration}") long refreshTokenExpiration) {
         this.repository = repository;
+        this.signedTokens = signedTokens.orElse(null);
         this.refreshTokenExpiration = refreshTokenExpiration;
+        this.reuseDetected = Counter.builder("auth.refresh.reuse-detected").register(meterRegistry);
     }
 
     @Transactional
     public RefreshToken createRefreshToken(User user) {
-        repository.deleteByUser(user);
-
-        RefreshToken token = RefreshToken.builder()
+        Instant now = Instant.now();
+        return issue(RefreshToken.builder()
                 .user(user)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusMillis(refreshTokenExpiration))
-                .build();
-
-        return repository.save(token);
+                .familyId(UUID.randomUUID().toString())
+                .sessionStartedAt(now)
+                .userAgent(currentUserAgent())
+                .expiryDate(now.plusMillis(refreshTokenExpiration))
+                .build());
     }
 
+    /**
+     * Looks a presented token up by its digest. Tokens issued before hashing are UUIDs and are
+     * still found by their plaintext column until they expire or are rotated.
+     */
     public Optional<RefreshToken> findByToken(String token) {
-        return repository.findByToken(token);
+        Optional<RefreshToken> found = token.length() == LEGACY_TOKEN_LENGTH
+                ? repository.findByLegacyToken(token)
+                : repository.findByTokenHash(hash(token));
+        found.ifPresent(refreshToken -> refreshToken.setToken(token));
+        return found;
+    }
+
+    /**
+     * Returns the user of a signed refresh token that can be used again without a rotation,
+     * answered from the token alone. Empty for opaque tokens and for signed ones that are due
+     * for rotation; those go through {@link #rotate}.
+     */
+    public Optional<User> reuse(String token) {
+        if (signedTokens == null || !SignedRefreshTokens.isSigned(token)) {
+            return Optional.empty();
+        }
+        return signedTokens.reuse(token);
+    }
+
+    /**
+     * Exchanges a refresh token for its successor in the same session. Expired tokens are
+     * deleted, and a token that was already rotated revokes its family; both changes are
+     * committed even though the caller gets an error.
+     */
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public RefreshToken rotate(String token) {
+        RefreshToken current = findByToken(token)
+                .orElseThrow(() -> new ResourceNotFoundException("Refresh token not found"));
+        verifyExpiration(current);
+
+        Instant now = Instant.now();
+        if (current.isRotated() || repository.markRotated(current.getId(), now) == 0) {
+            reuseDetected.increment();
+            log.warn("Refresh token reuse for {}: revoking session {}", current.getUser().getEmail(),
+                    current.getFamilyId());
+            revokeFamily(current);
+            throw new BadRequestException("Refresh token has already been used. Please login again.");
+        }
+
+        return issue(RefreshToken.builder()
+                .user(current.getUser())
+                .familyId(familyOf(current))
+                .sessionStartedAt(current.getSessionStartedAt() != null ? current.getSessionStartedAt() : now)
+                .userAgent(current.getUserAgent())
+                .expiryDate(now.plusMillis(refreshTokenExpiration))
+                .build());
     }
 
     @Transactional
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.isExpired()) {
             repository.delete(token);
-            throw new com.authforge.exception.BadRequestException("Refresh token expired. Please login again.");
+            throw new BadRequestException("Refresh token expired. Please login again.");
         }
         return token;
     }
 
+    public List<RefreshToken> findSessions(User user) {
+        return repository.findActiveByUser(user, Instant.now());
+    }
+
+    /** Revokes {@code user}'s session {@code familyId}; returns false if they have no such session. */
+    @Transactional
+    public boolean revokeFamily(User user, String familyId) {
+        if (repository.deleteByUserAndFamilyId(user, familyId) == 0) {
+            return false;
+        }
+        if (signedTokens != null) {
+            signedTokens.revokeFamily(familyId);
+        }
+        return true;
+    }
+
+    /** Revokes the session {@code token} belongs to, if it is one of {@code user}'s. */
+    @Transactional
+    public void revokeSession(User user, RefreshToken token) {
+        if (token.getUser().getId().equals(user.getId())) {
+            revokeFamily(token);
+        }
+    }
+
     @Transactional
     public void deleteByUser(User user) {
+        if (signedTokens != null) {
+            repository.findFamilyIdsByUser(user).forEach(signedTokens::revokeFamily);
+        }
         repository.deleteByUser(user);
     }
+
+    private void revokeFamily(RefreshToken token) {
+        if (token.getFamilyId() == null) {
+            repository.delete(token);
+            return;
+        }
+        repository.deleteByFamilyId(token.getFamilyId());
+        if (signedTokens != null) {
+            signedTokens.revokeFamily(token.getFamilyId());
+        }
+    }
+
+    private RefreshToken issue(RefreshToken refreshToken) {
+        String token = signedTokens != null ? signedTokens.issue(refreshToken) : randomToken();
+        refreshToken.setTokenHash(hash(token));
+        RefreshToken saved = repository.save(refreshToken);
+        saved.setToken(token);
+        return saved;
+    }
+
+    private static String randomToken() {
+        byte[] value = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(value);
+        return ENCODER.encodeToString(value);
+    }
+
+    static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String familyOf(RefreshToken token) {
+        return token.getFamilyId() != null ? token.getFamilyId() : UUID.randomUUID().toString();
+    }
+
+    private static String currentUserAgent() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+            if (userAgent != null && userAgent.length() > MAX_USER_AGENT) {
+                return userAgent.substring(0, MAX_USER_AGENT);
+            }
+            return userAgent;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,57 @@
+package com.authforge.service;
+
+import com.authforge.repository.SchedulerLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Runs a scheduled job on at most one node at a time, using a lease row in
+ * {@code scheduler_locks}. The lease is released when the job finishes; if the node dies
+ * first it simply runs out, so it must be longer than the job can take.
+ */
+@Service
+public class ScheduledJobLock {
+
+    private final SchedulerLockRepository repository;
+    private final String owner;
+
+    public ScheduledJobLock(SchedulerLockRepository repository) {
+        this.repository = repository;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    /** Runs {@code job} if no other node holds {@code name}; returns whether it ran. */
+    public boolean runExclusively(String name, Duration lease, Runnable job) {
+        Instant now = Instant.now();
+        if (!acquire(name, now, now.plus(lease))) {
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            repository.release(name, owner, Instant.now());
+        }
+    }
+
+    private boolean acquire(String name, Instant now, Instant until) {
+        if (repository.acquireExpired(name, owner, now, until) > 0) {
+            return true;
+        }
+        if (repository.existsById(name)) {
+            return false;
+        }
+        try {
+            repository.insert(name, owner, until);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first and holds it.
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.authforge.service;
+
+import com.authforge.dto.IntrospectionResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.security.TokenRevocationList;
+import com.authforge.security.ValidatedToken;
+import com.authforge.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 7662 token introspection for consumers that cannot verify JWTs themselves. A token
+ * is active when its signature and expiry check out and it has not been revoked.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList revocationList;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionService(
+            VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationList revocationList,
+            @Value("${authforge.introspection.max-batch-size:100}") int maxBatchSize) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationList = revocationList;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospectionResponse.inactive();
+        }
+
+        return verifiedTokenCache.validate(token)
+                .filter(t -> !revocationList.isRevoked(t))
+                .filter(t -> !t.hasAuthorityClaims() || t.enabled())
+                .map(TokenIntrospectionService::active)
+                .orElseGet(IntrospectionResponse::inactive);
+    }
+
+    public List<IntrospectionResponse> introspect(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " tokens can be introspected at once");
+        }
+
+        // Gateways often forward the same token for several in-flight requests.
+        Map<String, IntrospectionResponse> distinct = new HashMap<>();
+        return tokens.stream()
+                .map(token -> distinct.computeIfAbsent(token == null ? "" : token, this::introspect))
+                .toList();
+    }
+
+    private static IntrospectionResponse active(ValidatedToken token) {
+        return IntrospectionResponse.builder()
+                .active(true)
+                .sub(token.subject())
+                .role(token.hasAuthorityClaims() ? token.role() : null)
+                .exp(token.expiresAt() != null ? token.expiresAt().getEpochSecond() : null)
+                .iat(token.issuedAt() != null ? token.issuedAt().getEpochSecond() : null)
+                .jti(token.tokenId())
+                .clientId(token.isClientToken() ? token.subject() : null)
+                .scope(token.isClientToken() ? String.join(" ", token.scopes()) : null)
+                .tokenType("Bearer")
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.authforge.service;
 import com.authforge.model.Role;
 import com.authforge.model.User;
 import com.authforge.repository.UserRepository;
+import com.authforge.security.SecurityVersionTracker;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,9 +15,11 @@ public class UserService {
     private static final String USER_NOT_FOUND_ID = "User not found with id: ";
 
     private final UserRepository userRepository;
+    private final SecurityVersionTracker securityVersionTracker;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, SecurityVersionTracker securityVersionTracker) {
         this.userRepository = userRepository;
+        this.securityVersionTracker = securityVersionTracker;
     }
 
     public User getUserByEmail(String email) {
@@ -34,7 +37,10 @@ public class UserService {
                 .orElseThrow(() -> new com.authforge.exception.ResourceNotFoundException(USER_NOT_FOUND_ID + userId));
 
         user.setRole(Role.valueOf(newRole.toUpperCase()));
-        return userRepository.save(user);
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        User saved = userRepository.save(user);
+        securityVersionTracker.invalidate(saved.getEmail());
+        return saved;
     }
 
     @Transactional
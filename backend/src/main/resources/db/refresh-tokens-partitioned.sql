@@ -0,0 +1,65 @@
+-- Converts refresh_tokens into a table range-partitioned by expiry_date (PostgreSQL 12+).
+-- Run once, with the application stopped, then set JWT_REFRESH_PARTITIONED=true. The purge job
+-- creates the daily partitions ahead of time and drops each one once all of its rows have expired.
+--
+-- PostgreSQL requires every unique constraint of a partitioned table to include the partition
+-- key, so the database enforces (token_hash, expiry_date) and (token, expiry_date) only. The
+-- RefreshToken entity declares the same two constraints under the same names, so ddl-auto: update
+-- recreates them cleanly on startup. Global uniqueness rests on the tokens themselves: each is 256
+-- random bits stored as its SHA-256, and legacy ones are random UUIDs. A lookup that ever matched
+-- two rows would fail rather than pick one.
+
+set time zone 'UTC';
+
+begin;
+
+alter table refresh_tokens rename to refresh_tokens_unpartitioned;
+
+create table refresh_tokens (
+    id                 bigserial,
+    token_hash         bytea,
+    token              varchar(255),
+    user_id            bigint       not null references users (id),
+    family_id          varchar(64),
+    session_started_at timestamp(6) with time zone,
+    user_agent         varchar(255),
+    created_at         timestamp(6) with time zone,
+    rotated_at         timestamp(6) with time zone,
+    expiry_date        timestamp(6) with time zone not null,
+    primary key (id, expiry_date),
+    constraint uk_refresh_tokens_hash unique (token_hash, expiry_date),
+    constraint uk_refresh_tokens_token unique (token, expiry_date)
+) partition by range (expiry_date);
+
+-- Daily partitions (UTC) for the next 31 days, named the way the purge job expects.
+do $$
+begin
+    for i in 0..31 loop
+        execute format('create table %I partition of refresh_tokens for values from (%L) to (%L)',
+                       'refresh_tokens_p' || to_char(current_date + i, 'YYYYMMDD'),
+                       (current_date + i)::text || ' 00:00:00+00',
+                       (current_date + i + 1)::text || ' 00:00:00+00');
+    end loop;
+end $$;
+
+-- Catches anything outside the daily partitions, should the purge job fall behind.
+create table refresh_tokens_default partition of refresh_tokens default;
+
+create index idx_refresh_tokens_user on refresh_tokens (user_id);
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+create index idx_refresh_tokens_expiry on refresh_tokens (expiry_date);
+create index idx_refresh_tokens_rotated on refresh_tokens (rotated_at);
+
+insert into refresh_tokens (id, token_hash, token, user_id, family_id, session_started_at, user_agent,
+                            created_at, rotated_at, expiry_date)
+select id, token_hash, token, user_id, family_id, session_started_at, user_agent,
+       created_at, rotated_at, expiry_date
+from refresh_tokens_unpartitioned
+where expiry_date > now();
+
+select setval(pg_get_serial_sequence('refresh_tokens', 'id'),
+              coalesce((select max(id) from refresh_tokens_unpartitioned), 0) + 1, false);
+
+drop table refresh_tokens_unpartitioned;
+
+commit;
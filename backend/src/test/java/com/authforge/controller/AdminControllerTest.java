@@ -56,6 +56,8 @@ class AdminControllerTest {
     private com.authforge.security.JwtAuthFilter jwtAuthFilter;
     @MockBean
     private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
 
     private User testUser1;
     private User testUser2;
@@ -43,6 +43,8 @@ class AuthControllerTest {
         @MockBean
         private com.authforge.security.RateLimitFilter rateLimitFilter;
         @MockBean
+        private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+        @MockBean
         private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
         @MockBean
         private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
@@ -136,13 +138,16 @@ class AuthControllerTest {
 
         @Test
         void shouldLogoutUser() throws Exception {
-                doNothing().when(authService).logout("testuser");
+                doNothing().when(authService).logout("testuser", "access-token", null);
 
                 mockMvc.perform(post("/api/auth/logout")
                                 .principal(new UsernamePasswordAuthenticationToken("testuser", null))
+                                .header("Authorization", "Bearer access-token")
                                 .with(csrf()))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.message").value("Logged out successfully"));
+
+                verify(authService).logout("testuser", "access-token", null);
         }
 
     @Test
@@ -0,0 +1,82 @@
+package com.authforge.controller;
+
+import com.authforge.security.JwkSetDocument;
+import com.authforge.security.JwtSigningKey;
+import com.authforge.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = JwksController.class, excludeAutoConfiguration = {
+        OAuth2ClientAutoConfiguration.class }, properties = { "authforge.cors.allowed-origins=http://localhost:3000" })
+@org.springframework.test.context.ActiveProfiles("test")
+@AutoConfigureMockMvc(addFilters = false)
+class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    // Security beans required for context
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
+    @MockBean
+    private com.authforge.security.OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    @MockBean
+    private com.authforge.security.JwtAuthFilter jwtAuthFilter;
+    @MockBean
+    private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Test
+    void shouldServeCacheableKeySet() throws Exception {
+        JwtSigningKey key = JwtSigningKey.generate(JwtSigningKey.ES256);
+        JwkSetDocument jwkSet = JwkSetDocument.of(List.of(key));
+        when(jwtTokenProvider.getJwkSet()).thenReturn(jwkSet);
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", jwkSet.etag()))
+                .andExpect(header().string("Cache-Control", "max-age=900, public"))
+                .andExpect(jsonPath("$.keys.length()").value(1))
+                .andExpect(jsonPath("$.keys[0].kid").value(key.id()))
+                .andExpect(jsonPath("$.keys[0].kty").value("EC"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        JwkSetDocument jwkSet = JwkSetDocument.of(List.of(JwtSigningKey.generate(JwtSigningKey.EDDSA)));
+        when(jwtTokenProvider.getJwkSet()).thenReturn(jwkSet);
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", jwkSet.etag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldServeEmptyKeySetForHmacKeys() throws Exception {
+        when(jwtTokenProvider.getJwkSet()).thenReturn(JwkSetDocument.of(List.of(
+                JwtSigningKey.hmac("test-secret-key-long-enough-for-hs256-algorithm-to-work-properly-1234"))));
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys.length()").value(0));
+    }
+}
@@ -0,0 +1,110 @@
+package com.authforge.controller;
+
+import com.authforge.dto.ClientTokenResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.service.ClientCredentialsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = OAuth2TokenController.class, excludeAutoConfiguration = {
+        OAuth2ClientAutoConfiguration.class }, properties = { "authforge.cors.allowed-origins=http://localhost:3000" })
+@org.springframework.test.context.ActiveProfiles("test")
+@AutoConfigureMockMvc(addFilters = false)
+class OAuth2TokenControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClientCredentialsService clientCredentialsService;
+
+    // Security beans required for context
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
+    @MockBean
+    private com.authforge.security.OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    @MockBean
+    private com.authforge.security.JwtAuthFilter jwtAuthFilter;
+    @MockBean
+    private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    private static ClientTokenResponse token() {
+        return ClientTokenResponse.builder()
+                .accessToken("client-token")
+                .tokenType("Bearer")
+                .expiresIn(300)
+                .scope("introspect")
+                .build();
+    }
+
+    @Test
+    void shouldIssueTokenForBasicAuthenticatedClient() throws Exception {
+        when(clientCredentialsService.issueToken("svc_client", "s3cret", "introspect")).thenReturn(token());
+        String basic = Base64.getEncoder().encodeToString("svc_client:s3cret".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(post("/oauth2/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .header("Authorization", "Basic " + basic)
+                .param("grant_type", "client_credentials")
+                .param("scope", "introspect"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").value("client-token"))
+                .andExpect(jsonPath("$.token_type").value("Bearer"))
+                .andExpect(jsonPath("$.expires_in").value(300))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void shouldAcceptCredentialsInFormBody() throws Exception {
+        when(clientCredentialsService.issueToken("svc_client", "s3cret", null)).thenReturn(token());
+
+        mockMvc.perform(post("/oauth2/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "client_credentials")
+                .param("client_id", "svc_client")
+                .param("client_secret", "s3cret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope").value("introspect"));
+    }
+
+    @Test
+    void shouldRejectUnsupportedGrantType() throws Exception {
+        mockMvc.perform(post("/oauth2/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "password"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(clientCredentialsService);
+    }
+
+    @Test
+    void shouldRejectInvalidClient() throws Exception {
+        when(clientCredentialsService.issueToken("svc_client", "wrong", null))
+                .thenThrow(new BadRequestException("Invalid client credentials"));
+
+        mockMvc.perform(post("/oauth2/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("grant_type", "client_credentials")
+                .param("client_id", "svc_client")
+                .param("client_secret", "wrong"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid client credentials"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.authforge.controller;
+
+import com.authforge.security.RateLimitMonitor;
+import com.authforge.security.SpaceSavingCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = RateLimitController.class, excludeAutoConfiguration = {
+        OAuth2ClientAutoConfiguration.class }, properties = { "authforge.cors.allowed-origins=http://localhost:3000" })
+@org.springframework.test.context.ActiveProfiles("test")
+@AutoConfigureMockMvc(addFilters = false)
+class RateLimitControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RateLimitMonitor rateLimitMonitor;
+
+    // Security beans required for context
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
+    @MockBean
+    private com.authforge.security.OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    @MockBean
+    private com.authforge.security.JwtAuthFilter jwtAuthFilter;
+    @MockBean
+    private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Test
+    void shouldListTopOffenders() throws Exception {
+        when(rateLimitMonitor.windowStart()).thenReturn(Instant.parse("2024-01-01T00:00:00Z"));
+        when(rateLimitMonitor.topOffenders(2)).thenReturn(List.of(
+                new SpaceSavingCounter.Entry("203.0.113.7", 4812, 0),
+                new SpaceSavingCounter.Entry("198.51.100.4", 97, 12)));
+
+        mockMvc.perform(get("/api/admin/rate-limit/offenders").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offenders[0].client").value("203.0.113.7"))
+                .andExpect(jsonPath("$.offenders[0].rejected").value(4812))
+                .andExpect(jsonPath("$.offenders[1].error").value(12));
+    }
+
+    @Test
+    void shouldCapRequestedLimit() throws Exception {
+        when(rateLimitMonitor.topOffenders(100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/admin/rate-limit/offenders").param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offenders").isEmpty());
+
+        verify(rateLimitMonitor).topOffenders(100);
+    }
+}
@@ -0,0 +1,96 @@
+package com.authforge.controller;
+
+import com.authforge.dto.ServiceClientResponse;
+import com.authforge.service.ClientCredentialsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ServiceClientController.class, excludeAutoConfiguration = {
+        OAuth2ClientAutoConfiguration.class }, properties = { "authforge.cors.allowed-origins=http://localhost:3000" })
+@org.springframework.test.context.ActiveProfiles("test")
+@AutoConfigureMockMvc(addFilters = false)
+class ServiceClientControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ClientCredentialsService clientCredentialsService;
+
+    // Security beans required for context
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
+    @MockBean
+    private com.authforge.security.OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    @MockBean
+    private com.authforge.security.JwtAuthFilter jwtAuthFilter;
+    @MockBean
+    private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Test
+    void shouldCreateClientAndReturnSecretOnce() throws Exception {
+        when(clientCredentialsService.createClient("billing-worker", List.of("introspect")))
+                .thenReturn(ServiceClientResponse.builder()
+                        .clientId("svc_client")
+                        .clientSecret("s3cret")
+                        .name("billing-worker")
+                        .scopes(List.of("introspect"))
+                        .enabled(true)
+                        .build());
+
+        mockMvc.perform(post("/api/admin/clients")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"billing-worker\",\"scopes\":[\"introspect\"]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.clientId").value("svc_client"))
+                .andExpect(jsonPath("$.clientSecret").value("s3cret"));
+    }
+
+    @Test
+    void shouldRejectClientWithoutScopes() throws Exception {
+        mockMvc.perform(post("/api/admin/clients")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"billing-worker\",\"scopes\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldListClients() throws Exception {
+        when(clientCredentialsService.getAllClients()).thenReturn(List.of(ServiceClientResponse.builder()
+                .clientId("svc_client")
+                .name("billing-worker")
+                .scopes(List.of("introspect"))
+                .enabled(true)
+                .build()));
+
+        mockMvc.perform(get("/api/admin/clients"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].clientId").value("svc_client"))
+                .andExpect(jsonPath("$[0].clientSecret").doesNotExist());
+    }
+
+    @Test
+    void shouldDeleteClient() throws Exception {
+        mockMvc.perform(delete("/api/admin/clients/svc_client"))
+                .andExpect(status().isNoContent());
+
+        verify(clientCredentialsService).deleteClient("svc_client");
+    }
+}
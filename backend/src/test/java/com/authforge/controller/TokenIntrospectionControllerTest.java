@@ -0,0 +1,143 @@
+package com.authforge.controller;
+
+import com.authforge.dto.IntrospectionResponse;
+import com.authforge.service.TokenIntrospectionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = TokenIntrospectionController.class, excludeAutoConfiguration = {
+        OAuth2ClientAutoConfiguration.class }, properties = { "authforge.cors.allowed-origins=http://localhost:3000" })
+@org.springframework.test.context.ActiveProfiles("test")
+@AutoConfigureMockMvc(addFilters = false)
+@WithMockUser(authorities = "SCOPE_introspect")
+@Import(TokenIntrospectionControllerTest.MethodSecurity.class)
+class TokenIntrospectionControllerTest {
+
+    // The slice does not load SecurityConfig, which is where method security is switched on
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurity {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TokenIntrospectionService introspectionService;
+
+    // Security beans required for context
+    @MockBean
+    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.authforge.security.CustomOAuth2UserService customOAuth2UserService;
+    @MockBean
+    private com.authforge.security.OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    @MockBean
+    private com.authforge.security.JwtAuthFilter jwtAuthFilter;
+    @MockBean
+    private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    private static IntrospectionResponse active(long expiresInSeconds) {
+        return IntrospectionResponse.builder()
+                .active(true)
+                .sub("test@example.com")
+                .role("USER")
+                .exp(Instant.now().plusSeconds(expiresInSeconds).getEpochSecond())
+                .tokenType("Bearer")
+                .build();
+    }
+
+    @Test
+    void shouldIntrospectFormEncodedToken() throws Exception {
+        when(introspectionService.introspect("access-token")).thenReturn(active(600));
+
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", "access-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.sub").value("test@example.com"))
+                .andExpect(jsonPath("$.token_type").value("Bearer"))
+                .andExpect(header().string("Cache-Control", startsWith("max-age=")))
+                .andExpect(header().string("Cache-Control", endsWith(", private")));
+    }
+
+    @Test
+    void shouldNotCacheInactiveResult() throws Exception {
+        when(introspectionService.introspect("bad")).thenReturn(IntrospectionResponse.inactive());
+
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", "bad"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"active\":false}", true))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void shouldIntrospectBatchAndCacheUntilEarliestExpiry() throws Exception {
+        when(introspectionService.introspect(List.of("a", "b", "c")))
+                .thenReturn(List.of(active(600), IntrospectionResponse.inactive(), active(60)));
+
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[\"a\",\"b\",\"c\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[1].active").value(false))
+                .andExpect(header().string("Cache-Control", matchesPattern("max-age=(59|60), private")));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldRejectOrdinaryUsers() throws Exception {
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", "someone-elses-token"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldAllowAdmins() throws Exception {
+        when(introspectionService.introspect("access-token")).thenReturn(active(600));
+
+        mockMvc.perform(post("/oauth2/introspect")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", "access-token"))
+                .andExpect(status().isOk());
+    }
+}
@@ -55,6 +55,8 @@ class TwoFactorControllerTest {
     private com.authforge.security.JwtAuthFilter jwtAuthFilter;
     @MockBean
     private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
 
     private User testUser;
 
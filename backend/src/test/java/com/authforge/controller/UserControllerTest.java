@@ -1,7 +1,9 @@
 package com.authforge.controller;
 
+import com.authforge.model.RefreshToken;
 import com.authforge.model.Role;
 import com.authforge.model.User;
+import com.authforge.service.RefreshTokenService;
 import com.authforge.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +15,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -29,6 +35,8 @@ class UserControllerTest {
 
     @MockBean
     private UserService userService;
+    @MockBean
+    private RefreshTokenService refreshTokenService;
 
     // Security beans required for context
     @MockBean
@@ -41,6 +49,8 @@ class UserControllerTest {
     private com.authforge.security.JwtAuthFilter jwtAuthFilter;
     @MockBean
     private com.authforge.security.RateLimitFilter rateLimitFilter;
+    @MockBean
+    private com.authforge.security.ConcurrencyLimitFilter concurrencyLimitFilter;
 
     private User testUser;
 
@@ -66,4 +76,44 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("Test User"))
                 .andExpect(jsonPath("$.role").value("USER"));
     }
+
+    @Test
+    void shouldListSessions() throws Exception {
+        when(userService.getUserByEmail("user@example.com")).thenReturn(testUser);
+        when(refreshTokenService.findSessions(testUser)).thenReturn(List.of(RefreshToken.builder()
+                .familyId("family-1")
+                .userAgent("phone")
+                .sessionStartedAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .createdAt(Instant.parse("2026-01-02T00:00:00Z"))
+                .expiryDate(Instant.parse("2026-01-09T00:00:00Z"))
+                .build()));
+
+        mockMvc.perform(get("/api/users/me/sessions")
+                .principal(new UsernamePasswordAuthenticationToken("user@example.com", null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("family-1"))
+                .andExpect(jsonPath("$[0].userAgent").value("phone"))
+                .andExpect(jsonPath("$[0].startedAt").value("2026-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$[0].lastUsedAt").value("2026-01-02T00:00:00Z"));
+    }
+
+    @Test
+    void shouldRevokeOwnSession() throws Exception {
+        when(userService.getUserByEmail("user@example.com")).thenReturn(testUser);
+        when(refreshTokenService.revokeFamily(testUser, "family-1")).thenReturn(true);
+
+        mockMvc.perform(delete("/api/users/me/sessions/family-1")
+                .principal(new UsernamePasswordAuthenticationToken("user@example.com", null)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownSession() throws Exception {
+        when(userService.getUserByEmail("user@example.com")).thenReturn(testUser);
+        when(refreshTokenService.revokeFamily(testUser, "other")).thenReturn(false);
+
+        mockMvc.perform(delete("/api/users/me/sessions/other")
+                .principal(new UsernamePasswordAuthenticationToken("user@example.com", null)))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,70 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), initial, 2, 50, 500, 0.5);
+    }
+
+    @Test
+    void shouldRefuseBeyondCurrentLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(3);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldBackOffMultiplicativelyOnSlowResponses() {
+        AdaptiveConcurrencyLimiter limiter = limiter(16);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldGrowAdditivelyOnlyWhileLimitIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int round = 0; round < 20; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(FAST);
+            }
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(4).isLessThanOrEqualTo(50);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
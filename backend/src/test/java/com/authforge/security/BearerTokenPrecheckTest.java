@@ -0,0 +1,109 @@
+package com.authforge.security;
+
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BearerTokenPrecheckTest {
+
+    private static final String SECRET = "test-secret-key-long-enough-for-hs256-algorithm-to-work-properly-1234";
+
+    private SimpleMeterRegistry meterRegistry;
+    private BearerTokenPrecheck precheck;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        precheck = new BearerTokenPrecheck(meterRegistry, 4096, 60);
+        user = User.builder().email("test@example.com").name("Test").role(Role.USER).build();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("jwt.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String unsigned(String payloadJson) {
+        return encode("{\"alg\":\"HS256\"}") + "." + encode(payloadJson) + ".c2ln";
+    }
+
+    @Test
+    void shouldAcceptWellFormedUnexpiredToken() {
+        String token = SecurityFixtures.tokenProvider(SECRET, 900000L).generateAccessToken(user);
+
+        assertThat(precheck.accept(token)).isTrue();
+        assertThat(meterRegistry.get("jwt.rejected").counters()).allMatch(c -> c.count() == 0);
+    }
+
+    @Test
+    void shouldRejectOversizedToken() {
+        assertThat(precheck.accept("a".repeat(5000))).isFalse();
+        assertThat(rejected("oversized")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectStructurallyBrokenTokens() {
+        assertThat(precheck.accept("garbage")).isFalse();
+        assertThat(precheck.accept("a.b")).isFalse();
+        assertThat(precheck.accept("a..c")).isFalse();
+        assertThat(precheck.accept("a.b.c.d")).isFalse();
+        assertThat(precheck.accept("a.b.")).isFalse();
+        assertThat(precheck.accept("a+b.c/d.e=f")).isFalse();
+        assertThat(precheck.accept(encode("{}") + "." + encode("not json") + ".c2ln")).isFalse();
+        assertThat(precheck.accept("")).isFalse();
+
+        assertThat(rejected("malformed")).isEqualTo(8);
+    }
+
+    @Test
+    void shouldRejectTokenWithoutExpiry() {
+        assertThat(precheck.accept(unsigned("{\"sub\":\"a\"}"))).isFalse();
+        assertThat(precheck.accept(unsigned("{\"sub\":\"a\",\"exp\":\"soon\"}"))).isFalse();
+        assertThat(rejected("malformed")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectClearlyExpiredTokenWithoutVerifyingIt() {
+        String token = SecurityFixtures.tokenProvider(SECRET, -120000L).generateAccessToken(user);
+
+        assertThat(precheck.accept(token)).isFalse();
+        assertThat(rejected("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveTokensWithinClockSkewToFullVerification() {
+        long justExpired = System.currentTimeMillis() / 1000 - 10;
+
+        assertThat(precheck.accept(unsigned("{\"sub\":\"a\",\"exp\":" + justExpired + "}"))).isTrue();
+    }
+
+    @Test
+    void shouldFindExpKeyAfterAnExpStringValue() {
+        long future = System.currentTimeMillis() / 1000 + 600;
+
+        assertThat(precheck.accept(unsigned("{\"scope\":\"exp\",\"exp\" : " + future + "}"))).isTrue();
+    }
+
+    @Test
+    void shouldCountInvalidSignaturesFromProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider(SecurityFixtures.keyRing(JwtSigningKey.hmac(SECRET)), precheck, 900000L);
+        String forged = SecurityFixtures.tokenProvider(SECRET.replace('1', '9'), 900000L).generateAccessToken(user);
+
+        assertThat(provider.validate(forged)).isEmpty();
+        assertThat(provider.validate("garbage")).isEmpty();
+
+        assertThat(rejected("invalid")).isEqualTo(1);
+        assertThat(rejected("malformed")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordFileTest {
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(42);
+
+    private byte[] randomDigest() {
+        byte[] digest = new byte[BreachedPasswordFile.DIGEST_LENGTH];
+        random.nextBytes(digest);
+        return digest;
+    }
+
+    private static BufferedReader hibp(List<byte[]> digests) {
+        StringBuilder text = new StringBuilder();
+        for (byte[] digest : digests) {
+            text.append(HexFormat.of().withUpperCase().formatHex(digest)).append(':').append(3).append("\r\n");
+        }
+        return new BufferedReader(new StringReader(text.toString()));
+    }
+
+    @Test
+    void findsEveryWrittenDigestAcrossSegments() throws IOException {
+        List<byte[]> digests = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            digests.add(randomDigest());
+        }
+        // Digests sharing a prefix with a neighbour exercise within-bucket search
+        byte[] sibling = digests.get(0).clone();
+        sibling[19] ^= 1;
+        digests.add(sibling);
+        digests.sort(Arrays::compareUnsigned);
+
+        Path file = dir.resolve("breached.bin");
+        assertThat(BreachedPasswordFileBuilder.convert(hibp(digests), file)).isEqualTo(digests.size());
+
+        BreachedPasswordFile breached = BreachedPasswordFile.open(file, 7);
+        assertThat(breached.size()).isEqualTo(digests.size());
+        for (byte[] digest : digests) {
+            assertThat(breached.contains(digest)).isTrue();
+        }
+        for (int i = 0; i < 5000; i++) {
+            byte[] other = randomDigest();
+            boolean expected = digests.stream().anyMatch(d -> Arrays.equals(d, other));
+            assertThat(breached.contains(other)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void defaultMappingMatchesSegmentedMapping() throws IOException {
+        List<byte[]> digests = new ArrayList<>(List.of(randomDigest(), randomDigest(), randomDigest()));
+        digests.sort(Arrays::compareUnsigned);
+        Path file = dir.resolve("small.bin");
+        BreachedPasswordFileBuilder.convert(hibp(digests), file);
+
+        BreachedPasswordFile breached = BreachedPasswordFile.open(file);
+
+        assertThat(digests).allMatch(breached::contains);
+        assertThat(breached.contains(randomDigest())).isFalse();
+    }
+
+    @Test
+    void emptyFileContainsNothing() throws IOException {
+        Path file = dir.resolve("empty.bin");
+        BreachedPasswordFileBuilder.convert(hibp(List.of()), file);
+
+        BreachedPasswordFile breached = BreachedPasswordFile.open(file);
+
+        assertThat(breached.size()).isZero();
+        assertThat(breached.contains(randomDigest())).isFalse();
+    }
+
+    @Test
+    void rejectsUnsortedInput() {
+        byte[] first = randomDigest();
+        byte[] second = first.clone();
+        second[0] = (byte) (first[0] - 1);
+
+        assertThatThrownBy(() -> BreachedPasswordFileBuilder.convert(hibp(List.of(first, second)), dir.resolve("x.bin")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not sorted");
+    }
+
+    @Test
+    void rejectsForeignOrTruncatedFiles() throws IOException {
+        Path foreign = Files.write(dir.resolve("foreign.bin"), new byte[BreachedPasswordFile.HEADER_LENGTH]);
+        assertThatThrownBy(() -> BreachedPasswordFile.open(foreign))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a breached-password file");
+
+        Path file = dir.resolve("truncated.bin");
+        BreachedPasswordFileBuilder.convert(hibp(List.of(randomDigest())), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> BreachedPasswordFile.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Truncated");
+    }
+}
@@ -0,0 +1,74 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 2, 2, 10, 1000, 0.9);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, meterRegistry);
+
+    @Test
+    void shouldShedLoginsBeyondLimitWith503() throws Exception {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, chain);
+
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("auth.concurrency.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShedEncodedSpellingsOfLimitedPaths() throws Exception {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        for (String path : new String[] {"/api/auth/%6cogin", "/api/auth/login;x", "//api/auth/login"}) {
+            FilterChain chain = mock(FilterChain.class);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(new MockHttpServletRequest("POST", path), response, chain);
+
+            verifyNoInteractions(chain);
+            assertThat(response.getStatus()).as(path).isEqualTo(503);
+        }
+    }
+
+    @Test
+    void shouldNotLimitCheapEndpoints() throws Exception {
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void shouldReleasePermitWhenRequestFails() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        doThrow(new IllegalStateException("boom")).when(chain).doFilter(any(), any());
+
+        assertThatThrownBy(() -> filter.doFilter(
+                new MockHttpServletRequest("POST", "/api/auth/register"), new MockHttpServletResponse(), chain))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
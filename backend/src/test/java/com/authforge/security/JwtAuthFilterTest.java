@@ -7,22 +7,25 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtAuthFilterTest {
 
     @Mock
-    private JwtTokenProvider jwtTokenProvider;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Mock
     private CustomUserDetailsService userDetailsService;
@@ -36,12 +39,32 @@ class JwtAuthFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @InjectMocks
+    @Mock
+    private SecurityVersionTracker securityVersionTracker;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
     private JwtAuthFilter jwtAuthFilter;
 
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
+        jwtAuthFilter = new JwtAuthFilter(verifiedTokenCache, userDetailsService, securityVersionTracker, revocationList, false);
+    }
+
+    private static Optional<ValidatedToken> statelessToken(String email, String role, boolean enabled, long version) {
+        Instant now = Instant.now();
+        return Optional.of(new ValidatedToken(email, now, now.plusSeconds(900), Map.of(
+                "sub", email,
+                ValidatedToken.ROLE_CLAIM, role,
+                ValidatedToken.ENABLED_CLAIM, enabled,
+                ValidatedToken.SECURITY_VERSION_CLAIM, version)));
+    }
+
+    private static Optional<ValidatedToken> validated(String email) {
+        Instant now = Instant.now();
+        return Optional.of(new ValidatedToken(email, now, now.plusSeconds(900), Map.of("sub", email)));
     }
 
     @Test
@@ -65,21 +88,37 @@ class JwtAuthFilterTest {
         UserDetails userDetails = new User(email, "password", Collections.emptyList());
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtTokenProvider.extractEmail(jwt)).thenReturn(email);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(validated(email));
         when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-        when(jwtTokenProvider.isTokenValid(jwt, userDetails)).thenReturn(true);
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
+        verify(verifiedTokenCache, times(1)).validate(jwt);
         assert SecurityContextHolder.getContext().getAuthentication() != null;
     }
 
+    @Test
+    void doFilterInternal_withRevokedToken_doesNotAuthenticate() throws Exception {
+        String jwt = "revoked.jwt.token";
+        Optional<ValidatedToken> token = validated("test@example.com");
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(token);
+        when(revocationList.isRevoked(token.get())).thenReturn(true);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assert SecurityContextHolder.getContext().getAuthentication() == null;
+    }
+
     @Test
     void doFilterInternal_withException_continuesChain() throws Exception {
         String jwt = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtTokenProvider.extractEmail(jwt)).thenThrow(new RuntimeException("Token parse error"));
+        when(verifiedTokenCache.validate(jwt)).thenThrow(new RuntimeException("Token parse error"));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
@@ -88,10 +127,10 @@ class JwtAuthFilterTest {
     }
 
     @Test
-    void doFilterInternal_withNullEmail_continuesChain() throws Exception {
+    void doFilterInternal_withUnvalidatedToken_continuesChain() throws Exception {
         String jwt = "valid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtTokenProvider.extractEmail(jwt)).thenReturn(null);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(Optional.empty());
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
@@ -109,28 +148,110 @@ class JwtAuthFilterTest {
         SecurityContextHolder.getContext().setAuthentication(existingAuth);
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtTokenProvider.extractEmail(jwt)).thenReturn(email);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(validated(email));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
         assert SecurityContextHolder.getContext().getAuthentication() == existingAuth;
     }
 
     @Test
     void doFilterInternal_withInvalidToken_continuesChain() throws Exception {
         String jwt = "invalid.signature.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(Optional.empty());
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assert SecurityContextHolder.getContext().getAuthentication() == null;
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_buildsAuthenticationFromClaims() throws Exception {
+        jwtAuthFilter = new JwtAuthFilter(verifiedTokenCache, userDetailsService, securityVersionTracker, revocationList, true);
+        String jwt = "stateless.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(statelessToken("test@example.com", "ADMIN", true, 2L));
+        when(securityVersionTracker.isCurrent("test@example.com", 2L)).thenReturn(true);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test@example.com");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void doFilterInternal_clientToken_grantsScopesWithoutUserLookup() throws Exception {
+        String jwt = "client.jwt.token";
+        Instant now = Instant.now();
+        ValidatedToken token = new ValidatedToken("svc_client", now, now.plusSeconds(300), Map.of(
+                ValidatedToken.CLIENT_ID_CLAIM, "svc_client",
+                ValidatedToken.SCOPE_CLAIM, "introspect"));
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(Optional.of(token));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(userDetailsService);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("svc_client");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("SCOPE_introspect");
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_rejectsStaleSecurityVersion() throws Exception {
+        jwtAuthFilter = new JwtAuthFilter(verifiedTokenCache, userDetailsService, securityVersionTracker, revocationList, true);
+        String jwt = "stale.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(statelessToken("test@example.com", "ADMIN", true, 1L));
+        when(securityVersionTracker.isCurrent("test@example.com", 1L)).thenReturn(false);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_rejectsDisabledUser() throws Exception {
+        jwtAuthFilter = new JwtAuthFilter(verifiedTokenCache, userDetailsService, securityVersionTracker, revocationList, true);
+        String jwt = "disabled.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(statelessToken("test@example.com", "USER", false, 0L));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(securityVersionTracker, userDetailsService);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_fallsBackToLookupForLegacyTokens() throws Exception {
+        jwtAuthFilter = new JwtAuthFilter(verifiedTokenCache, userDetailsService, securityVersionTracker, revocationList, true);
+        String jwt = "legacy.jwt.token";
         String email = "test@example.com";
         UserDetails userDetails = new User(email, "password", Collections.emptyList());
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtTokenProvider.extractEmail(jwt)).thenReturn(email);
+        when(verifiedTokenCache.validate(jwt)).thenReturn(validated(email));
         when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-        when(jwtTokenProvider.isTokenValid(jwt, userDetails)).thenReturn(false);
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
-        verify(filterChain).doFilter(request, response);
-        assert SecurityContextHolder.getContext().getAuthentication() == null;
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
     }
 }
@@ -0,0 +1,85 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtKeyRingTest {
+
+    @Mock
+    private JwtKeySource source;
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private final JwtSigningKey first = JwtSigningKey.hmac("first-secret-key-long-enough-for-hs256-algorithm-0001");
+    private final JwtSigningKey second = JwtSigningKey.hmac("second-secret-key-long-enough-for-hs256-algorithm-0002");
+
+    @Test
+    void shouldFindKeysById() {
+        JwtKeyRing ring = SecurityFixtures.keyRing(second, first);
+
+        assertThat(ring.active()).isEqualTo(second);
+        assertThat(ring.find(first.id())).isEqualTo(first);
+        assertThat(ring.find(second.id())).isEqualTo(second);
+        assertThat(ring.find("unknown")).isNull();
+        assertThat(ring.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldUseActiveKeyForTokensWithoutKid() {
+        assertThat(SecurityFixtures.keyRing(second, first).find(null)).isEqualTo(second);
+    }
+
+    @Test
+    void shouldSwapKeysAndNotifyOnReload() {
+        when(source.load()).thenReturn(
+                new JwtKeySource.LoadedKeys(first, List.of()),
+                new JwtKeySource.LoadedKeys(second, List.of(first)));
+        when(source.isReloadable()).thenReturn(true);
+        when(source.hasChanged()).thenReturn(true);
+        JwtKeyRing ring = new JwtKeyRing(source, events);
+
+        ring.reload();
+
+        assertThat(ring.active()).isEqualTo(second);
+        assertThat(ring.find(first.id())).isEqualTo(first);
+        verify(events).publishEvent(new JwtKeyRing.KeyRingChangedEvent(second.id()));
+    }
+
+    @Test
+    void shouldSkipReloadWhenUnchanged() {
+        when(source.load()).thenReturn(new JwtKeySource.LoadedKeys(first, List.of()));
+        when(source.isReloadable()).thenReturn(true);
+        when(source.hasChanged()).thenReturn(false);
+        JwtKeyRing ring = new JwtKeyRing(source, events);
+
+        ring.reload();
+
+        verify(source, times(1)).load();
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void shouldKeepCurrentKeysWhenReloadFails() {
+        when(source.load())
+                .thenReturn(new JwtKeySource.LoadedKeys(first, List.of()))
+                .thenThrow(new IllegalStateException("No signing key found"));
+        when(source.isReloadable()).thenReturn(true);
+        when(source.hasChanged()).thenReturn(true);
+        JwtKeyRing ring = new JwtKeyRing(source, events);
+
+        ring.reload();
+
+        assertThat(ring.active()).isEqualTo(first);
+        verify(events, never()).publishEvent(any());
+    }
+}
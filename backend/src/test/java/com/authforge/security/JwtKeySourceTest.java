@@ -0,0 +1,101 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeySourceTest {
+
+    private static final String SECRET = "current-secret-key-long-enough-for-hs256-algorithm-1234";
+    private static final String OLD_SECRET = "previous-secret-key-long-enough-for-hs256-algorithm-5678";
+
+    @TempDir
+    Path keysDir;
+
+    private JwtKeySource source(String algorithm, String previousSecrets, String directory) {
+        return new JwtKeySource(new DefaultResourceLoader(), algorithm, SECRET, previousSecrets, "", "", directory);
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der) + "\n-----END " + type + "-----\n";
+    }
+
+    @Test
+    void shouldLoadConfiguredSecretWithPreviousSecrets() {
+        JwtKeySource.LoadedKeys keys = source("HMAC", OLD_SECRET + " , ", "").load();
+
+        assertThat(keys.active().id()).isEqualTo(JwtSigningKey.hmac(SECRET).id());
+        assertThat(keys.verificationOnly()).extracting(JwtSigningKey::id)
+                .containsExactly(JwtSigningKey.hmac(OLD_SECRET).id());
+    }
+
+    @Test
+    void shouldGenerateEphemeralKeyWhenNoPemConfigured() {
+        JwtKeySource.LoadedKeys keys = source("ES256", "", "").load();
+
+        assertThat(keys.active().isAsymmetric()).isTrue();
+        assertThat(keys.active().canSign()).isTrue();
+    }
+
+    @Test
+    void shouldUseGreatestNameAsActiveKey() throws Exception {
+        Files.writeString(keysDir.resolve("2026-01-01.secret"), OLD_SECRET);
+        Files.writeString(keysDir.resolve("2026-02-01.secret"), SECRET + "\n");
+
+        JwtKeySource.LoadedKeys keys = source("HMAC", "", keysDir.toString()).load();
+
+        assertThat(keys.active().id()).isEqualTo(JwtSigningKey.hmac(SECRET).id());
+        assertThat(keys.verificationOnly()).extracting(JwtSigningKey::id)
+                .containsExactly(JwtSigningKey.hmac(OLD_SECRET).id());
+    }
+
+    @Test
+    void shouldLoadAsymmetricPairsAndVerificationOnlyKeys() throws Exception {
+        KeyPair current = io.jsonwebtoken.Jwts.SIG.ES256.keyPair().build();
+        KeyPair retired = io.jsonwebtoken.Jwts.SIG.ES256.keyPair().build();
+        Files.writeString(keysDir.resolve("b.key"), pem("PRIVATE KEY", current.getPrivate().getEncoded()));
+        Files.writeString(keysDir.resolve("b.pub"), pem("PUBLIC KEY", current.getPublic().getEncoded()));
+        Files.writeString(keysDir.resolve("a.pub"), pem("PUBLIC KEY", retired.getPublic().getEncoded()));
+        Files.writeString(keysDir.resolve("README"), "ignored");
+
+        JwtKeySource.LoadedKeys keys = source("ES256", "", keysDir.toString()).load();
+
+        assertThat(keys.active().canSign()).isTrue();
+        assertThat(keys.verificationOnly()).hasSize(1);
+        assertThat(keys.verificationOnly().get(0).canSign()).isFalse();
+    }
+
+    @Test
+    void shouldDetectDirectoryChanges() throws Exception {
+        Path file = keysDir.resolve("2026-01-01.secret");
+        Files.writeString(file, SECRET);
+        JwtKeySource source = source("HMAC", "", keysDir.toString());
+        source.load();
+
+        assertThat(source.isReloadable()).isTrue();
+        assertThat(source.hasChanged()).isFalse();
+
+        Files.writeString(keysDir.resolve("2026-02-01.secret"), OLD_SECRET);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+        assertThat(source.hasChanged()).isTrue();
+    }
+
+    @Test
+    void shouldRejectDirectoryWithoutSigningKey() {
+        JwtKeySource source = source("HMAC", "", keysDir.toString());
+
+        assertThatThrownBy(source::load)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No signing key");
+    }
+}
@@ -1,65 +1,167 @@
 package com.authforge.security;
 
+import com.authforge.model.Role;
+import com.authforge.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
+import java.util.Optional;
+
+import static com.authforge.security.SecurityFixtures.keyRing;
+import static com.authforge.security.SecurityFixtures.tokenProvider;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class JwtTokenProviderTest {
 
     private JwtTokenProvider jwtTokenProvider;
-    private UserDetails userDetails;
+    private User user;
 
     @BeforeEach
     void setUp() {
         String secret = "test-secret-key-long-enough-for-hs256-algorithm-to-work-properly-1234";
-        jwtTokenProvider = new JwtTokenProvider(secret, 900000L);
+        jwtTokenProvider = tokenProvider(secret, 900000L);
 
-        userDetails = User.builder()
-                .username("test@example.com")
-                .password("password")
-                .roles("USER")
+        user = User.builder()
+                .email("test@example.com")
+                .name("Test User")
+                .role(Role.USER)
+                .securityVersion(3)
                 .build();
     }
 
     @Test
     void shouldGenerateToken() {
-        String token = jwtTokenProvider.generateAccessToken(userDetails);
+        String token = jwtTokenProvider.generateAccessToken(user);
         assertThat(token).isNotBlank();
     }
 
     @Test
-    void shouldExtractEmail() {
-        String token = jwtTokenProvider.generateAccessToken(userDetails);
-        assertThat(jwtTokenProvider.extractEmail(token)).isEqualTo("test@example.com");
+    void shouldCarryEmailAsSubject() {
+        String token = jwtTokenProvider.generateAccessToken(user);
+        assertThat(jwtTokenProvider.validate(token).map(ValidatedToken::subject)).contains("test@example.com");
     }
 
     @Test
-    void shouldValidateToken() {
-        String token = jwtTokenProvider.generateAccessToken(userDetails);
-        assertThat(jwtTokenProvider.isTokenValid(token, userDetails)).isTrue();
+    void shouldRejectTamperedToken() {
+        String token = jwtTokenProvider.generateAccessToken(user);
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "invalidsignature";
+        assertThat(jwtTokenProvider.validate(tampered)).isEmpty();
     }
 
     @Test
-    void shouldRejectInvalidToken() {
-        assertThat(jwtTokenProvider.isTokenValid("invalid.token.here", userDetails)).isFalse();
+    void shouldReturnCorrectExpiration() {
+        assertThat(jwtTokenProvider.getAccessTokenExpiration()).isEqualTo(900000L);
     }
 
     @Test
-    void shouldReturnCorrectExpiration() {
-        assertThat(jwtTokenProvider.getAccessTokenExpiration()).isEqualTo(900000L);
+    void shouldValidateTokenInSinglePass() {
+        String token = jwtTokenProvider.generateAccessToken(user);
+
+        Optional<ValidatedToken> validated = jwtTokenProvider.validate(token);
+
+        assertThat(validated).isPresent();
+        assertThat(validated.get().subject()).isEqualTo("test@example.com");
+        assertThat(validated.get().expiresAt()).isAfter(validated.get().issuedAt());
+        assertThat(validated.get().claims()).containsEntry("sub", "test@example.com");
     }
 
     @Test
-    void shouldRejectTokenWithDifferentEmail() {
-        String token = jwtTokenProvider.generateAccessToken(userDetails);
-        UserDetails differentUser = User.builder()
-                .username("wrong@example.com")
-                .password("password")
-                .roles("USER")
-                .build();
-        assertThat(jwtTokenProvider.isTokenValid(token, differentUser)).isFalse();
+    void shouldReturnEmptyForInvalidToken() {
+        assertThat(jwtTokenProvider.validate("invalid.token.here")).isEmpty();
+    }
+
+    @Test
+    void shouldReturnEmptyForTokenSignedWithAnotherKey() {
+        JwtTokenProvider other = tokenProvider(
+                "another-secret-key-long-enough-for-hs256-algorithm-to-work-properly-99", 900000L);
+        String token = other.generateAccessToken(user);
+
+        assertThat(jwtTokenProvider.validate(token)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepRefreshAndAccessTokensApart() {
+        user.setId(7L);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user, "family-1", Instant.now().plusSeconds(3600));
+        String accessToken = jwtTokenProvider.generateAccessToken(user);
+
+        assertThat(jwtTokenProvider.validate(refreshToken)).isEmpty();
+        assertThat(jwtTokenProvider.validateRefreshToken(accessToken)).isEmpty();
+
+        ValidatedToken validated = jwtTokenProvider.validateRefreshToken(refreshToken).orElseThrow();
+        assertThat(validated.userId()).isEqualTo(7L);
+        assertThat(validated.familyId()).isEqualTo("family-1");
+        assertThat(validated.securityVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldEmbedAuthorityClaims() {
+        String token = jwtTokenProvider.generateAccessToken(user);
+
+        ValidatedToken validated = jwtTokenProvider.validate(token).orElseThrow();
+
+        assertThat(validated.hasAuthorityClaims()).isTrue();
+        assertThat(validated.role()).isEqualTo("USER");
+        assertThat(validated.enabled()).isTrue();
+        assertThat(validated.securityVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldIssueClientTokenWithScopes() {
+        java.time.Instant expiresAt = java.time.Instant.now().plusSeconds(300);
+        String token = jwtTokenProvider.generateClientToken("svc_client", "introspect metrics", expiresAt);
+
+        ValidatedToken validated = jwtTokenProvider.validate(token).orElseThrow();
+
+        assertThat(validated.isClientToken()).isTrue();
+        assertThat(validated.hasAuthorityClaims()).isFalse();
+        assertThat(validated.subject()).isEqualTo("svc_client");
+        assertThat(validated.scopes()).containsExactly("introspect", "metrics");
+        assertThat(validated.expiresAt().getEpochSecond()).isEqualTo(expiresAt.getEpochSecond());
+    }
+
+    @Test
+    void shouldSignWithKeyIdHeader() {
+        String token = jwtTokenProvider.generateAccessToken(user);
+        String header = new String(java.util.Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+        assertThat(header).contains("\"kid\"").contains("\"alg\":\"HS");
+        assertThat(jwtTokenProvider.getJwkSet().json()).isEqualTo("{\"keys\":[]}");
+    }
+
+    @Test
+    void shouldSignAndVerifyWithEs256() {
+        JwtTokenProvider es256 = tokenProvider(keyRing(JwtSigningKey.generate(JwtSigningKey.ES256)), 900000L);
+
+        String token = es256.generateAccessToken(user);
+
+        assertThat(es256.validate(token)).isPresent();
+        assertThat(jwtTokenProvider.validate(token)).isEmpty();
+        assertThat(es256.getJwkSet().json()).contains("\"kty\":\"EC\"");
+    }
+
+    @Test
+    void shouldSignAndVerifyWithEdDsa() {
+        JwtTokenProvider eddsa = tokenProvider(keyRing(JwtSigningKey.generate(JwtSigningKey.EDDSA)), 900000L);
+
+        String token = eddsa.generateAccessToken(user);
+
+        assertThat(eddsa.validate(token).map(ValidatedToken::subject)).contains("test@example.com");
+        assertThat(eddsa.getJwkSet().json()).contains("\"crv\":\"Ed25519\"");
+    }
+
+    @Test
+    void shouldKeepVerifyingTokensFromRetiredKeyAfterRotation() {
+        JwtSigningKey oldKey = JwtSigningKey.generate(JwtSigningKey.ES256);
+        JwtSigningKey newKey = JwtSigningKey.generate(JwtSigningKey.ES256);
+        String oldToken = tokenProvider(keyRing(oldKey), 900000L).generateAccessToken(user);
+
+        JwtTokenProvider rotated = tokenProvider(keyRing(newKey, oldKey), 900000L);
+        String newToken = rotated.generateAccessToken(user);
+
+        assertThat(rotated.validate(oldToken)).isPresent();
+        assertThat(rotated.validate(newToken)).isPresent();
+        assertThat(tokenProvider(keyRing(newKey), 900000L).validate(oldToken)).isEmpty();
     }
 }
@@ -0,0 +1,154 @@
+package com.authforge.security;
+
+import com.authforge.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new LoginAttemptTracker(userRepository, new SimpleMeterRegistry(), 3, 6,
+                1000, 4000, Duration.ofMinutes(15).toMillis(), 1000, true, Optional.of(ticker));
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void shouldAllowFreeAttemptsWithoutDelay() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+    }
+
+    @Test
+    void shouldDoubleDelayAfterFreeAttempts() {
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+        assertThat(tracker.tryAcquire("victim@example.com")).isEqualTo(1);
+
+        advance(Duration.ofSeconds(1));
+        tracker.recordFailure("victim@example.com");
+        assertThat(tracker.tryAcquire("victim@example.com")).isEqualTo(2);
+
+        advance(Duration.ofSeconds(2));
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+    }
+
+    @Test
+    void shouldLockOutAndPersistAtMaxFailures() {
+        boolean locked = false;
+        for (int i = 0; i < 6; i++) {
+            locked = tracker.recordFailure("Victim@Example.com");
+        }
+
+        assertThat(locked).isTrue();
+        assertThat(tracker.tryAcquire("victim@example.com")).isEqualTo(900);
+        verify(userRepository).updateLockedUntil(eq("Victim@Example.com"), any(Instant.class));
+
+        advance(Duration.ofMinutes(15));
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+    }
+
+    @Test
+    void shouldForgetFailuresAfterSuccess() {
+        for (int i = 0; i < 5; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+
+        tracker.recordSuccess("victim@example.com");
+
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+        assertThat(tracker.recordFailure("victim@example.com")).isFalse();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldKeepAccountsIndependent() {
+        for (int i = 0; i < 6; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+
+        assertThat(tracker.tryAcquire("other@example.com")).isZero();
+    }
+
+    @Test
+    void shouldRejectParallelAttemptsBeyondTheFreeBudget() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return tracker.tryAcquire("victim@example.com");
+                }));
+            }
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Long> result : results) {
+                if (result.get() == 0) {
+                    acquired++;
+                }
+            }
+            // Sequentially four wrong guesses go through before the first delay, so four in parallel too
+            assertThat(acquired).isEqualTo(4);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+        assertThat(tracker.tryAcquire("victim@example.com")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFreeReservationOnRelease() {
+        for (int i = 0; i < 3; i++) {
+            tracker.recordFailure("victim@example.com");
+        }
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+        assertThat(tracker.tryAcquire("victim@example.com")).isEqualTo(1);
+
+        tracker.release("victim@example.com");
+
+        assertThat(tracker.tryAcquire("victim@example.com")).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncodersTest {
+
+    private static final int MEMORY = 1024;
+    private static final int ITERATIONS = 1;
+
+    @Test
+    void encodesWithTargetAlgorithmPrefix() {
+        PasswordEncoder bcrypt = PasswordEncoders.delegating("bcrypt", 4, MEMORY, ITERATIONS);
+        PasswordEncoder argon2 = PasswordEncoders.delegating("argon2", 4, MEMORY, ITERATIONS);
+
+        assertThat(bcrypt.encode("secret")).startsWith("{bcrypt}$2a$04$");
+        assertThat(argon2.encode("secret")).startsWith("{argon2}$argon2id$");
+    }
+
+    @Test
+    void legacyUnprefixedBcryptStillMatchesAndIsUpgraded() {
+        PasswordEncoder encoder = PasswordEncoders.delegating("bcrypt", 4, MEMORY, ITERATIONS);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void upgradesOnlyHashesBelowTargetStrength() {
+        PasswordEncoder encoder = PasswordEncoders.delegating("bcrypt", 5, MEMORY, ITERATIONS);
+        String weaker = PasswordEncoders.delegating("bcrypt", 4, MEMORY, ITERATIONS).encode("secret");
+
+        assertThat(encoder.matches("secret", weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void bcryptHashesAreMigratedWhenTargetIsArgon2() {
+        PasswordEncoder encoder = PasswordEncoders.delegating("argon2", 4, MEMORY, ITERATIONS);
+        String bcrypt = PasswordEncoders.delegating("bcrypt", 4, MEMORY, ITERATIONS).encode("secret");
+
+        assertThat(encoder.matches("secret", bcrypt)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void successfulLoginRewritesOutdatedHash() {
+        PasswordEncoder encoder = PasswordEncoders.delegating("bcrypt", 5, MEMORY, ITERATIONS);
+        UserDetails stored = User.withUsername("user@example.com")
+                .password(new BCryptPasswordEncoder(4).encode("secret"))
+                .roles("USER")
+                .build();
+        AtomicReference<String> saved = new AtomicReference<>();
+        UserDetailsPasswordService passwordService = (user, newPassword) -> {
+            saved.set(newPassword);
+            return User.withUserDetails(user).password(newPassword).build();
+        };
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> stored);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(passwordService);
+        provider.authenticate(new UsernamePasswordAuthenticationToken("user@example.com", "secret"));
+
+        assertThat(saved.get()).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", saved.get())).isTrue();
+    }
+}
@@ -0,0 +1,98 @@
+package com.authforge.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashCalibratorTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> tried = new ArrayList<>();
+
+    /** Encoder whose cost doubles per step, like BCrypt: cost 10 takes 25 ms. */
+    private PasswordEncoder exponential(int cost) {
+        tried.add(cost);
+        long millis = 25L << (cost - 10);
+        return encoder(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private PasswordEncoder encoder(long encodeNanos) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                nanos.addAndGet(encodeNanos);
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void choosesStrongestCostWithinTarget() {
+        PasswordHashCalibrator calibrator =
+                new PasswordHashCalibrator(meterRegistry, Duration.ofMillis(100), 3, ticker);
+
+        int cost = calibrator.calibrate("bcrypt", this::exponential, 10, 16);
+
+        assertThat(cost).isEqualTo(12);
+        assertThat(tried).containsExactly(10, 11, 12, 13);
+        assertThat(meterRegistry.get("auth.password-hash.cost").tag("algorithm", "bcrypt").gauge().value())
+                .isEqualTo(12);
+        assertThat(meterRegistry.get("auth.password-hash.calibrated-time").timeGauge().value(TimeUnit.MILLISECONDS))
+                .isEqualTo(100);
+    }
+
+    @Test
+    void neverExceedsMaximumCost() {
+        PasswordHashCalibrator calibrator =
+                new PasswordHashCalibrator(meterRegistry, Duration.ofSeconds(10), 1, ticker);
+
+        assertThat(calibrator.calibrate("bcrypt", this::exponential, 10, 12)).isEqualTo(12);
+    }
+
+    @Test
+    void keepsMinimumWhenEvenItMissesTarget() {
+        PasswordHashCalibrator calibrator =
+                new PasswordHashCalibrator(meterRegistry, Duration.ofMillis(10), 3, ticker);
+
+        assertThat(calibrator.calibrate("bcrypt", this::exponential, 10, 16)).isEqualTo(10);
+        assertThat(tried).containsExactly(10);
+    }
+
+    @Test
+    void medianIgnoresOutliers() {
+        PasswordHashCalibrator calibrator =
+                new PasswordHashCalibrator(meterRegistry, Duration.ofMillis(100), 5, ticker);
+        long[] timings = {5, 900, 10, 12, 11, 800};
+        int[] call = {0};
+        PasswordEncoder jittery = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(timings[call[0]++]));
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+
+        assertThat(calibrator.medianEncodeNanos(jittery)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(12));
+    }
+}
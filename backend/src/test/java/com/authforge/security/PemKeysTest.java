@@ -0,0 +1,51 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PemKeysTest {
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    @Test
+    void shouldReadEcKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        KeyPair original = generator.generateKeyPair();
+
+        KeyPair read = PemKeys.readKeyPair(JwtSigningKey.ES256,
+                pem("PRIVATE KEY", original.getPrivate().getEncoded()),
+                pem("PUBLIC KEY", original.getPublic().getEncoded()));
+
+        assertThat(read.getPrivate()).isEqualTo(original.getPrivate());
+        assertThat(read.getPublic()).isEqualTo(original.getPublic());
+    }
+
+    @Test
+    void shouldReadEd25519KeyPair() throws Exception {
+        KeyPair original = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+        KeyPair read = PemKeys.readKeyPair(JwtSigningKey.EDDSA,
+                pem("PRIVATE KEY", original.getPrivate().getEncoded()),
+                pem("PUBLIC KEY", original.getPublic().getEncoded()));
+
+        assertThat(read.getPublic().getEncoded()).isEqualTo(original.getPublic().getEncoded());
+    }
+
+    @Test
+    void shouldRejectGarbage() {
+        assertThatThrownBy(() -> PemKeys.readKeyPair(JwtSigningKey.ES256, "not a key", "not a key"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Invalid ES256 PEM key");
+    }
+}
@@ -0,0 +1,100 @@
+package com.authforge.security;
+
+import com.authforge.service.ScheduledJobLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RateLimitBucketPurgeJobTest {
+
+    private static final long REFILL_PERIOD = 60_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from rate_limit_buckets");
+    }
+
+    private RateLimitBucketPurgeJob job(JdbcTemplate jdbcTemplate, int batchSize) {
+        return new RateLimitBucketPurgeJob(jdbcTemplate, mock(ScheduledJobLock.class), new SimpleMeterRegistry(),
+                REFILL_PERIOD, batchSize, 600000);
+    }
+
+    private static Timestamp ago(long millis) {
+        return Timestamp.from(Instant.now().minusMillis(millis));
+    }
+
+    private void insert(String id, long idleMillis) {
+        jdbcTemplate.update("insert into rate_limit_buckets (id, state, updated_at) values (?, ?, ?)",
+                id, new byte[]{1, 2, 3}, ago(idleMillis));
+    }
+
+    private long remaining() {
+        return jdbcTemplate.queryForObject("select count(*) from rate_limit_buckets", Long.class);
+    }
+
+    @Test
+    void shouldDeleteOnlyBucketsIdleForARefillPeriod() {
+        insert("ip:idle", 120_000);
+        insert("ip:recent", 30_000);
+        insert("ip:active", 0);
+
+        assertThat(job(jdbcTemplate, 10).purge()).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("select id from rate_limit_buckets order by id", String.class))
+                .containsExactly("ip:active", "ip:recent");
+    }
+
+    @Test
+    void shouldStampNewBucketsOnInsert() {
+        // Bucket4j inserts only the key; the column default supplies the timestamp
+        jdbcTemplate.update("insert into rate_limit_buckets (id, state) values (?, null)", "ip:new");
+
+        assertThat(job(jdbcTemplate, 10).purge()).isZero();
+        assertThat(remaining()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSweepTheTableInBatches() {
+        for (int i = 0; i < 25; i++) {
+            insert("ip:" + (100 + i), 120_000);
+        }
+        insert("ip:active", 0);
+
+        assertThat(job(jdbcTemplate, 4).purge()).isEqualTo(25);
+        assertThat(remaining()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepBucketsWrittenBetweenReadAndDelete() {
+        insert("ip:raced", 120_000);
+        // Another node consumes from the bucket right after the sweep has listed it
+        JdbcTemplate racing = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                List<T> rows = super.queryForList(sql, elementType, args);
+                update("update rate_limit_buckets set updated_at = ? where id = ?", ago(0), "ip:raced");
+                return rows;
+            }
+        };
+
+        assertThat(job(racing, 10).purge()).isZero();
+        assertThat(remaining()).isEqualTo(1);
+    }
+}
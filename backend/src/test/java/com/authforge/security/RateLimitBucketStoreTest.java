@@ -0,0 +1,151 @@
+package com.authforge.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitBucketStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private RateLimitBucketStore store(SimpleMeterRegistry meterRegistry, long maxBuckets) {
+        return new RateLimitBucketStore(meterRegistry, Optional.empty(), maxBuckets, 60000, 5, 500, Optional.of(ticker));
+    }
+
+    private static BucketConfiguration bucket() {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(5).refillGreedy(5, Duration.ofMinutes(1)).build())
+                .build();
+    }
+
+    @Test
+    void shouldReturnSameBucketForSameClient() {
+        RateLimitBucketStore store = store(new SimpleMeterRegistry(), 100);
+
+        Bucket first = store.resolve("10.0.0.1", RateLimitBucketStoreTest::bucket);
+        first.tryConsume(3);
+
+        assertThat(store.resolve("10.0.0.1", RateLimitBucketStoreTest::bucket)).isSameAs(first);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExpireIdleBuckets() {
+        RateLimitBucketStore store = store(new SimpleMeterRegistry(), 100);
+        store.resolve("10.0.0.1", RateLimitBucketStoreTest::bucket);
+
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void shouldStayWithinEntryCapUnderHighCardinality() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitBucketStore store = store(meterRegistry, 1000);
+
+        for (int i = 0; i < 50000; i++) {
+            store.resolve("10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255), RateLimitBucketStoreTest::bucket);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(1000);
+        assertThat(meterRegistry.get("cache.size").tag("cache", RateLimitBucketStore.CACHE_NAME).gauge().value())
+                .isLessThanOrEqualTo(1000);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", RateLimitBucketStore.CACHE_NAME)
+                .functionCounter().count()).isGreaterThanOrEqualTo(49000);
+    }
+
+    @Test
+    void shouldShareStateAcrossNodesAndSyncInBatches() {
+        InMemoryProxyManager shared = new InMemoryProxyManager();
+        RateLimitBucketStore nodeA = new RateLimitBucketStore(new SimpleMeterRegistry(), Optional.of(shared), 100, 60000,
+                5, 60000, Optional.of(ticker));
+        RateLimitBucketStore nodeB = new RateLimitBucketStore(new SimpleMeterRegistry(), Optional.of(shared), 100, 60000,
+                5, 60000, Optional.of(ticker));
+        Supplier<BucketConfiguration> limit = () -> BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(20).refillGreedy(20, Duration.ofHours(1)).build())
+                .build();
+
+        int allowed = 0;
+        for (int i = 0; i < 40; i++) {
+            RateLimitBucketStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.resolve("10.0.0.1", limit).tryConsume(1)) {
+                allowed++;
+            }
+        }
+
+        // Each node may overshoot by at most one unsynchronised batch
+        assertThat(allowed).isBetween(20, 30);
+        assertThat(shared.writes.get()).isLessThan(40);
+    }
+
+    private static final class InMemoryProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+        private final Map<String, byte[]> states = new ConcurrentHashMap<>();
+        private final AtomicInteger writes = new AtomicInteger();
+
+        InMemoryProxyManager() {
+            super(ClientSideConfig.getDefault());
+        }
+
+        @Override
+        protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+            return new CompareAndSwapOperation() {
+                @Override
+                public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                    return Optional.ofNullable(states.get(key));
+                }
+
+                @Override
+                public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                              Optional<Long> timeoutNanos) {
+                    writes.incrementAndGet();
+                    if (originalData == null) {
+                        return states.putIfAbsent(key, newData) == null;
+                    }
+                    return states.replace(key, originalData, newData);
+                }
+            };
+        }
+
+        @Override
+        protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            states.remove(key);
+        }
+
+        @Override
+        protected CompletableFuture<Void> removeAsync(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isAsyncModeSupported() {
+            return false;
+        }
+    }
+}
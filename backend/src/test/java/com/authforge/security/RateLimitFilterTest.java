@@ -1,5 +1,6 @@
 package com.authforge.security;
 
+import com.authforge.config.RateLimitProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -8,10 +9,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +34,8 @@ class RateLimitFilterTest {
 
     @BeforeEach
     void setUp() {
-        rateLimitFilter = new RateLimitFilter(5);
+        rateLimitFilter = SecurityFixtures.rateLimitFilter(5);
+        lenient().when(request.getContextPath()).thenReturn("");
     }
 
     @Test
@@ -89,4 +96,133 @@ class RateLimitFilterTest {
 
         verify(filterChain).doFilter(request, response);
     }
+
+    private static RateLimitFilter filterWithPolicies() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(100);
+        properties.setPolicies(List.of(
+                policy("login", RateLimitProperties.KeyType.IP_EMAIL, 2, "/api/auth/login"),
+                policy("refresh", RateLimitProperties.KeyType.IP, 3, "/api/auth/refresh")));
+        return SecurityFixtures.rateLimitFilter(properties);
+    }
+
+    private static RateLimitProperties.Policy policy(String name, RateLimitProperties.KeyType key, int rpm, String path) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setKey(key);
+        policy.setRequestsPerMinute(rpm);
+        policy.setPaths(List.of(path));
+        return policy;
+    }
+
+    private static int post(RateLimitFilter filter, String path, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("203.0.113.7");
+        request.setContentType("application/json");
+        if (body != null) {
+            request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            // Controllers must still be able to bind the body the filter inspected
+            assertThat(req.getInputStream().readAllBytes()).hasSize(body == null ? 0 : body.length());
+        });
+        return response.getStatus();
+    }
+
+    @Test
+    void shouldKeepSeparateBudgetsPerEndpoint() throws Exception {
+        RateLimitFilter filter = filterWithPolicies();
+
+        for (int i = 0; i < 3; i++) {
+            post(filter, "/api/auth/refresh", null);
+        }
+
+        assertThat(post(filter, "/api/auth/refresh", null)).isEqualTo(429);
+        assertThat(post(filter, "/api/auth/login", "{\"email\":\"a@example.com\"}")).isEqualTo(200);
+        assertThat(post(filter, "/api/auth/register", null)).isEqualTo(200);
+    }
+
+    @Test
+    void shouldKeyLoginBudgetByIpAndEmail() throws Exception {
+        RateLimitFilter filter = filterWithPolicies();
+
+        post(filter, "/api/auth/login", "{\"email\":\"a@example.com\"}");
+        post(filter, "/api/auth/login", "{\"email\":\"A@example.com\"}");
+
+        assertThat(post(filter, "/api/auth/login", "{\"email\":\"a@example.com\"}")).isEqualTo(429);
+        assertThat(post(filter, "/api/auth/login", "{\"email\":\"b@example.com\"}")).isEqualTo(200);
+    }
+
+    @Test
+    void shouldReportRemainingBudgetAndRetryAfter() throws Exception {
+        RateLimitFilter filter = filterWithPolicies();
+
+        MockHttpServletResponse first = refresh(filter);
+
+        assertThat(first.getHeader("X-RateLimit-Limit")).isEqualTo("3");
+        assertThat(first.getHeader("X-RateLimit-Remaining")).isEqualTo("2");
+        assertThat(first.getHeader("X-RateLimit-Policy")).isEqualTo("refresh");
+
+        refresh(filter);
+        refresh(filter);
+        MockHttpServletResponse rejected = refresh(filter);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 20L);
+        assertThat(rejected.getContentAsString()).contains("\"policy\":\"refresh\"");
+    }
+
+    @Test
+    void shouldBufferOnlyTheInspectedPrefixOfLargeBodies() throws Exception {
+        String body = "{\"email\":\"a@example.com\",\"padding\":\"" + "x".repeat(100_000) + "\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, 8192);
+
+        assertThat(cached.head()).hasSize(8193);
+        assertThat(new String(cached.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(post(filterWithPolicies(), "/api/auth/login", body)).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRejectOnIpBudgetBeforeReadingTheBody() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(100);
+        properties.setPolicies(List.of(
+                policy("login-account", RateLimitProperties.KeyType.IP_EMAIL, 10, "/api/auth/login"),
+                policy("login", RateLimitProperties.KeyType.IP, 1, "/api/auth/login")));
+        RateLimitFilter filter = SecurityFixtures.rateLimitFilter(properties);
+        post(filter, "/api/auth/login", "{\"email\":\"a@example.com\"}");
+
+        MockHttpServletRequest request = spy(new MockHttpServletRequest("POST", "/api/auth/login"));
+        request.setRemoteAddr("203.0.113.7");
+        request.setContent("{\"email\":\"a@example.com\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        verify(request, never()).getInputStream();
+    }
+
+    @Test
+    void shouldMatchPoliciesOnTheNormalizedPath() throws Exception {
+        RateLimitFilter filter = filterWithPolicies();
+
+        post(filter, "/api/auth/login", "{\"email\":\"a@example.com\"}");
+        post(filter, "/api/auth/%6cogin", "{\"email\":\"a@example.com\"}");
+
+        assertThat(post(filter, "/api/auth/login;x", "{\"email\":\"a@example.com\"}")).isEqualTo(429);
+        assertThat(post(filter, "//api/auth/login", "{\"email\":\"a@example.com\"}")).isEqualTo(429);
+    }
+
+    private MockHttpServletResponse refresh(RateLimitFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/refresh");
+        request.setRemoteAddr("198.51.100.4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
 }
@@ -0,0 +1,63 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitMonitorTest {
+
+    @Test
+    void shouldCountOutcomesPerPolicy() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitMonitor monitor = new RateLimitMonitor(meterRegistry, 10);
+
+        monitor.accepted("login");
+        monitor.accepted("login");
+        monitor.rejected("login", "203.0.113.7");
+        monitor.accepted("refresh");
+
+        assertThat(meterRegistry.get("rate-limit.requests").tag("policy", "login").tag("outcome", "accepted")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("rate-limit.requests").tag("policy", "login").tag("outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("rate-limit.requests").tag("policy", "refresh").tag("outcome", "accepted")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepHeavyHittersWithinFixedCapacity() {
+        RateLimitMonitor monitor = new RateLimitMonitor(new SimpleMeterRegistry(), 10);
+
+        for (int i = 0; i < 20000; i++) {
+            monitor.rejected("login", "10.0." + (i >> 8 & 255) + "." + (i & 255));
+            if (i % 4 == 0) {
+                monitor.rejected("login", "203.0.113.7");
+            }
+            if (i % 5 == 0) {
+                monitor.rejected("login", "198.51.100.4");
+            }
+        }
+
+        List<SpaceSavingCounter.Entry> top = monitor.topOffenders(5);
+
+        assertThat(top).hasSize(5);
+        assertThat(top.get(0).key()).isEqualTo("203.0.113.7");
+        assertThat(top.get(0).count() - top.get(0).error()).isLessThanOrEqualTo(5000);
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(5000);
+        assertThat(top).extracting(SpaceSavingCounter.Entry::key).contains("198.51.100.4");
+        assertThat(monitor.topOffenders(100)).hasSize(10);
+    }
+
+    @Test
+    void shouldForgetOffendersWhenWindowResets() {
+        RateLimitMonitor monitor = new RateLimitMonitor(new SimpleMeterRegistry(), 10);
+        monitor.rejected("login", "203.0.113.7");
+
+        monitor.resetWindow();
+
+        assertThat(monitor.topOffenders(10)).isEmpty();
+    }
+}
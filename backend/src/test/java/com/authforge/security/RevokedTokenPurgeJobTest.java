@@ -0,0 +1,47 @@
+package com.authforge.security;
+
+import com.authforge.repository.RevokedTokenRepository;
+import com.authforge.service.ScheduledJobLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenPurgeJobTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    @Mock
+    private ScheduledJobLock jobLock;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RevokedTokenPurgeJob job() {
+        return new RevokedTokenPurgeJob(repository, jobLock, meterRegistry, 600000);
+    }
+
+    @Test
+    void shouldDeleteExpiredRevocationsAndCountThem() {
+        when(repository.deleteExpired(any())).thenReturn(3);
+
+        assertThat(job().purge()).isEqualTo(3);
+        assertThat(meterRegistry.get("jwt.revocation.purged").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldPurgeUnderTheSchedulerLock() {
+        when(jobLock.runExclusively(eq(RevokedTokenPurgeJob.LOCK_NAME), any(), any())).thenReturn(false);
+
+        job().run();
+
+        verify(repository, never()).deleteExpired(any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.authforge.security;
+
+import com.authforge.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Security beans built outside Spring with their default settings, for tests and benchmarks. */
+public final class SecurityFixtures {
+
+    private SecurityFixtures() {
+    }
+
+    public static JwtKeyRing keyRing(JwtSigningKey active, JwtSigningKey... verificationOnly) {
+        JwtKeySource source = mock(JwtKeySource.class);
+        when(source.load()).thenReturn(new JwtKeySource.LoadedKeys(active, List.of(verificationOnly)));
+        return new JwtKeyRing(source, event -> { });
+    }
+
+    public static BearerTokenPrecheck precheck() {
+        return new BearerTokenPrecheck(new SimpleMeterRegistry(), 4096, 60);
+    }
+
+    public static JwtTokenProvider tokenProvider(JwtKeyRing keyRing, long accessTokenExpiration) {
+        return new JwtTokenProvider(keyRing, precheck(), accessTokenExpiration);
+    }
+
+    public static JwtTokenProvider tokenProvider(String secret, long accessTokenExpiration) {
+        return tokenProvider(keyRing(JwtSigningKey.hmac(secret)), accessTokenExpiration);
+    }
+
+    public static RateLimitBucketStore bucketStore(long maxBuckets) {
+        return new RateLimitBucketStore(new SimpleMeterRegistry(), Optional.empty(), maxBuckets, 60000, 5, 500,
+                Optional.empty());
+    }
+
+    public static RateLimitFilter rateLimitFilter(RateLimitProperties properties) {
+        return new RateLimitFilter(bucketStore(100000), properties, new ObjectMapper(),
+                new RateLimitMonitor(new SimpleMeterRegistry(), 100));
+    }
+
+    public static RateLimitFilter rateLimitFilter(int requestsPerMinute) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerMinute(requestsPerMinute);
+        return rateLimitFilter(properties);
+    }
+}
@@ -0,0 +1,102 @@
+package com.authforge.security;
+
+import com.authforge.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityVersionTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shouldAcceptMatchingVersionAndCacheIt() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 60000L, 1000);
+        when(userRepository.findSecurityVersionByEmail("test@example.com")).thenReturn(Optional.of(2L));
+
+        assertThat(tracker.isCurrent("test@example.com", 2L)).isTrue();
+        assertThat(tracker.isCurrent("test@example.com", 2L)).isTrue();
+
+        verify(userRepository, times(1)).findSecurityVersionByEmail("test@example.com");
+    }
+
+    @Test
+    void shouldRejectOutdatedVersion() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 60000L, 1000);
+        when(userRepository.findSecurityVersionByEmail("test@example.com")).thenReturn(Optional.of(3L));
+
+        assertThat(tracker.isCurrent("test@example.com", 2L)).isFalse();
+    }
+
+    @Test
+    void shouldRejectUnknownUser() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 60000L, 1000);
+        when(userRepository.findSecurityVersionByEmail("gone@example.com")).thenReturn(Optional.empty());
+
+        assertThat(tracker.isCurrent("gone@example.com", 0L)).isFalse();
+    }
+
+    @Test
+    void shouldReloadAfterInvalidate() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 60000L, 1000);
+        when(userRepository.findSecurityVersionByEmail("test@example.com"))
+                .thenReturn(Optional.of(0L))
+                .thenReturn(Optional.of(1L));
+
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isTrue();
+        tracker.invalidate("test@example.com");
+
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isFalse();
+    }
+
+    @Test
+    void shouldInvalidateOnlyOnceTheTransactionCommits() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 60000L, 1000);
+        when(userRepository.findSecurityVersionByEmail("test@example.com"))
+                .thenReturn(Optional.of(0L))
+                .thenReturn(Optional.of(1L));
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.invalidate("test@example.com");
+            assertThat(tracker.isCurrent("test@example.com", 0L)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isFalse();
+    }
+
+    @Test
+    void shouldQueryOnEveryCheckWhenIntervalIsZero() {
+        SecurityVersionTracker tracker = new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), 0L, 1000);
+        when(userRepository.findSecurityVersionByEmail("test@example.com"))
+                .thenReturn(Optional.of(0L))
+                .thenReturn(Optional.of(1L));
+
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isTrue();
+        assertThat(tracker.isCurrent("test@example.com", 0L)).isFalse();
+        verify(userRepository, times(2)).findSecurityVersionByEmail("test@example.com");
+    }
+
+    @Test
+    void shouldRejectNegativeInterval() {
+        assertThatThrownBy(() -> new SecurityVersionTracker(userRepository, new SimpleMeterRegistry(), -1L, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
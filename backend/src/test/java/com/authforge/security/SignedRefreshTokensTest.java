@@ -0,0 +1,124 @@
+package com.authforge.security;
+
+import com.authforge.exception.BadRequestException;
+import com.authforge.model.RefreshToken;
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SignedRefreshTokensTest {
+
+    private static final long DAY = 86400000L;
+
+    @Mock
+    private TokenRevocationList revocationList;
+    @Mock
+    private SecurityVersionTracker securityVersionTracker;
+
+    private final JwtTokenProvider jwtTokenProvider = SecurityFixtures.tokenProvider(
+            "test-secret-key-long-enough-for-hs256-algorithm-to-work-properly-1234", 900000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(42L)
+                .email("signed@example.com")
+                .name("Signed")
+                .role(Role.ADMIN)
+                .twoFactorEnabled(true)
+                .securityVersion(5)
+                .build();
+    }
+
+    private SignedRefreshTokens signedTokens(long rotateAfter) {
+        return new SignedRefreshTokens(jwtTokenProvider, revocationList, securityVersionTracker, meterRegistry,
+                rotateAfter, 7 * DAY);
+    }
+
+    private String issue(SignedRefreshTokens signedTokens) {
+        return signedTokens.issue(RefreshToken.builder()
+                .user(user)
+                .familyId("family-1")
+                .expiryDate(Instant.now().plusMillis(7 * DAY))
+                .build());
+    }
+
+    @Test
+    void shouldAnswerFreshTokenFromItsClaims() {
+        SignedRefreshTokens signedTokens = signedTokens(DAY);
+        String token = issue(signedTokens);
+        when(securityVersionTracker.isCurrent("signed@example.com", 5)).thenReturn(true);
+
+        User resolved = signedTokens.reuse(token).orElseThrow();
+
+        assertThat(SignedRefreshTokens.isSigned(token)).isTrue();
+        assertThat(resolved.getId()).isEqualTo(42L);
+        assertThat(resolved.getEmail()).isEqualTo("signed@example.com");
+        assertThat(resolved.getName()).isNull();
+        assertThat(resolved.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(resolved.isTwoFactorEnabled()).isFalse();
+        assertThat(resolved.isEnabled()).isTrue();
+        assertThat(meterRegistry.counter("auth.refresh.stateless").count()).isEqualTo(1);
+        verify(revocationList).isRevoked("family:family-1");
+    }
+
+    @Test
+    void shouldAskForRotationOnceTokenIsOldEnough() {
+        SignedRefreshTokens signedTokens = signedTokens(0);
+
+        assertThat(signedTokens.reuse(issue(signedTokens))).isEmpty();
+    }
+
+    @Test
+    void shouldAskForRotationWhenClaimsAreStale() {
+        SignedRefreshTokens signedTokens = signedTokens(DAY);
+        when(securityVersionTracker.isCurrent("signed@example.com", 5)).thenReturn(false);
+
+        assertThat(signedTokens.reuse(issue(signedTokens))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectRevokedFamily() {
+        SignedRefreshTokens signedTokens = signedTokens(DAY);
+        when(revocationList.isRevoked("family:family-1")).thenReturn(true);
+
+        assertThatThrownBy(() -> signedTokens.reuse(issue(signedTokens)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void shouldRejectTamperedAndAccessTokens() {
+        SignedRefreshTokens signedTokens = signedTokens(DAY);
+        String token = issue(signedTokens);
+
+        assertThatThrownBy(() -> signedTokens.reuse(token.substring(0, token.length() - 2) + "xx"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> signedTokens.reuse(jwtTokenProvider.generateAccessToken(user)))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(revocationList);
+    }
+
+    @Test
+    void shouldRevokeFamilyForTheLongestTokenLifetime() {
+        signedTokens(DAY).revokeFamily("family-1");
+
+        verify(revocationList).revoke(eq("family:family-1"),
+                argThat(expiry -> expiry.isAfter(Instant.now().plusMillis(7 * DAY - 60000))));
+    }
+}
@@ -0,0 +1,67 @@
+package com.authforge.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingCounterTest {
+
+    @Test
+    void shouldMergeStripesFilledFromManyThreads() throws Exception {
+        SpaceSavingCounter counter = new SpaceSavingCounter(10, 4);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < 5000; i++) {
+                    counter.offer("10.0." + seed + "." + (i & 255));
+                    if (i % 4 == 0) {
+                        counter.offer("203.0.113.7");
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<SpaceSavingCounter.Entry> top = counter.top(5);
+
+        assertThat(top.get(0).key()).isEqualTo("203.0.113.7");
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(threads * 1250);
+        assertThat(top.get(0).count() - top.get(0).error()).isLessThanOrEqualTo(threads * 1250);
+        assertThat(counter.top(100)).hasSize(10);
+    }
+
+    @Test
+    void shouldCountExactlyWhileUnderCapacity() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(10, 4);
+        counter.offer("a");
+        counter.offer("b");
+        counter.offer("a");
+
+        assertThat(counter.top(10)).containsExactly(
+                new SpaceSavingCounter.Entry("a", 2, 0),
+                new SpaceSavingCounter.Entry("b", 1, 0));
+
+        counter.clear();
+
+        assertThat(counter.top(10)).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
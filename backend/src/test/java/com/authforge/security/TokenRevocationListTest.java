@@ -0,0 +1,120 @@
+package com.authforge.security;
+
+import com.authforge.model.RevokedToken;
+import com.authforge.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    private static ValidatedToken token(String tokenId) {
+        Instant now = Instant.now();
+        return new ValidatedToken("test@example.com", now, now.plusSeconds(900), Map.of("jti", tokenId));
+    }
+
+    private TokenRevocationList revocationList() {
+        return new TokenRevocationList(repository, new SimpleMeterRegistry(), 1000, 0.01);
+    }
+
+    @Test
+    void shouldAnswerUnknownTokensWithoutQueryingTheTable() {
+        TokenRevocationList revocationList = revocationList();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(revocationList.isRevoked(token("token-" + i))).isFalse();
+        }
+
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void shouldRejectTokenRevokedOnThisNode() {
+        TokenRevocationList revocationList = revocationList();
+        ValidatedToken token = token("revoked");
+        when(repository.existsById("revoked")).thenReturn(true);
+
+        revocationList.revoke(token);
+
+        assertThat(revocationList.isRevoked(token)).isTrue();
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void shouldLoadUnexpiredRevocationsOnStartup() {
+        when(repository.findUnexpiredTokenIds(any())).thenReturn(List.of("revoked"));
+        when(repository.existsById("revoked")).thenReturn(true);
+
+        assertThat(revocationList().isRevoked(token("revoked"))).isTrue();
+    }
+
+    @Test
+    void shouldPickUpRevocationsFromOtherNodesOnRefresh() {
+        TokenRevocationList revocationList = revocationList();
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(RevokedToken.builder()
+                .tokenId("elsewhere")
+                .expiresAt(Instant.now().plusSeconds(900))
+                .revokedAt(Instant.now())
+                .build()));
+        when(repository.existsById("elsewhere")).thenReturn(true);
+
+        revocationList.refresh();
+
+        assertThat(revocationList.isRevoked(token("elsewhere"))).isTrue();
+    }
+
+    @Test
+    void shouldRebuildWithoutDeletingRows() {
+        TokenRevocationList revocationList = revocationList();
+
+        revocationList.rebuild();
+
+        verify(repository, times(2)).findUnexpiredTokenIds(any());
+        verify(repository, never()).deleteExpired(any());
+    }
+
+    @Test
+    void shouldIgnoreTokensWithoutId() {
+        TokenRevocationList revocationList = revocationList();
+        Instant now = Instant.now();
+        ValidatedToken legacy = new ValidatedToken("test@example.com", now, now.plusSeconds(900), Map.of());
+
+        revocationList.revoke(legacy);
+
+        assertThat(revocationList.isRevoked(legacy)).isFalse();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void bloomFilterShouldStayNearTargetFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("member-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertThat(filter.mightContain("member-" + i)).isTrue();
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,93 @@
+package com.authforge.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static Optional<ValidatedToken> tokenExpiringAt(Instant expiresAt) {
+        return Optional.of(new ValidatedToken("test@example.com", Instant.now(), expiresAt, Map.of()));
+    }
+
+    @Test
+    void shouldVerifyOnceAndServeRepeatsFromCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, true, 100);
+        when(jwtTokenProvider.validate("token")).thenReturn(tokenExpiringAt(Instant.now().plusSeconds(900)));
+
+        assertThat(cache.validate("token")).isPresent();
+        assertThat(cache.validate("token")).isPresent();
+        assertThat(cache.validate("token")).isPresent();
+
+        verify(jwtTokenProvider, times(1)).validate("token");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotCacheRejectedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, true, 100);
+        when(jwtTokenProvider.validate("bad")).thenReturn(Optional.empty());
+
+        assertThat(cache.validate("bad")).isEmpty();
+        assertThat(cache.validate("bad")).isEmpty();
+
+        verify(jwtTokenProvider, times(2)).validate("bad");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheAlreadyExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, true, 100);
+        when(jwtTokenProvider.validate("token")).thenReturn(tokenExpiringAt(Instant.now().minusSeconds(1)));
+
+        cache.validate("token");
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldDelegateWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, false, 100);
+        when(jwtTokenProvider.validate("token")).thenReturn(tokenExpiringAt(Instant.now().plusSeconds(900)));
+
+        cache.validate("token");
+        cache.validate("token");
+
+        verify(jwtTokenProvider, times(2)).validate("token");
+        assertThat(meterRegistry.find("cache.gets").meters()).isEmpty();
+    }
+
+    @Test
+    void shouldInvalidateAllEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtTokenProvider, meterRegistry, true, 100);
+        when(jwtTokenProvider.validate("token")).thenReturn(tokenExpiringAt(Instant.now().plusSeconds(900)));
+
+        cache.validate("token");
+        cache.invalidateAll();
+        cache.validate("token");
+
+        verify(jwtTokenProvider, times(2)).validate("token");
+    }
+}
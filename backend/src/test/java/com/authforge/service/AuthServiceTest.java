@@ -9,18 +9,26 @@ import com.authforge.model.RefreshToken;
 import com.authforge.model.Role;
 import com.authforge.model.User;
 import com.authforge.repository.UserRepository;
+import com.authforge.security.AuthenticatedUser;
 import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.LoginAttemptTracker;
+import com.authforge.security.TokenRevocationList;
+import com.authforge.security.ValidatedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,6 +54,12 @@ class AuthServiceTest {
     private TotpService totpService;
     @Mock
     private EmailService emailService;
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+    @Mock
+    private LoginAttemptTracker loginAttemptTracker;
+    @Mock
+    private BreachedPasswordService breachedPasswordService;
 
     private FeatureFlags featureFlags;
     private AuthService authService;
@@ -62,7 +76,8 @@ class AuthServiceTest {
         authService = new AuthService(
                 userRepository, passwordEncoder, jwtTokenProvider,
                 refreshTokenService, authenticationManager,
-                totpService, emailService, featureFlags);
+                totpService, emailService, featureFlags, tokenRevocationList, loginAttemptTracker,
+                breachedPasswordService);
 
         testUser = User.builder()
                 .id(1L)
@@ -114,6 +129,22 @@ class AuthServiceTest {
                 .hasMessageContaining("Email already registered");
     }
 
+    @Test
+    void shouldRejectBreachedPasswordOnRegister() {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+        when(breachedPasswordService.isBreached("password123")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.register(request))
+                .isInstanceOf(com.authforge.exception.BadRequestException.class)
+                .hasMessageContaining("data breach");
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void shouldLoginUser() {
         LoginRequest request = new LoginRequest();
@@ -133,6 +164,79 @@ class AuthServiceTest {
         assertThat(response.isRequiresTwoFactor()).isFalse();
     }
 
+    @Test
+    void shouldRejectThrottledLoginBeforeAuthenticating() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("guess");
+        when(loginAttemptTracker.tryAcquire("test@example.com")).thenReturn(8L);
+
+        assertThatThrownBy(() -> authService.login(request))
+                .isInstanceOf(com.authforge.exception.TooManyAttemptsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(8L);
+
+        verifyNoInteractions(authenticationManager, passwordEncoder);
+    }
+
+    @Test
+    void shouldRecordFailedLogin() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("wrong");
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThatThrownBy(() -> authService.login(request)).isInstanceOf(BadCredentialsException.class);
+
+        verify(loginAttemptTracker).recordFailure("test@example.com");
+        verify(loginAttemptTracker, never()).recordSuccess(anyString());
+    }
+
+    @Test
+    void shouldReleaseReservationWhenAuthenticationFailsOtherwise() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+        when(authenticationManager.authenticate(any())).thenThrow(new LockedException("User account is locked"));
+
+        assertThatThrownBy(() -> authService.login(request)).isInstanceOf(LockedException.class);
+
+        verify(loginAttemptTracker).release("test@example.com");
+        verify(loginAttemptTracker, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void shouldResetFailuresAndClearExpiredLockoutOnSuccess() {
+        testUser.setLockedUntil(Instant.now().minusSeconds(60));
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(refreshTokenService.createRefreshToken(any(User.class))).thenReturn(testRefreshToken);
+
+        authService.login(request);
+
+        verify(loginAttemptTracker).recordSuccess("test@example.com");
+        assertThat(testUser.getLockedUntil()).isNull();
+        verify(userRepository).updateLockedUntil("test@example.com", null);
+    }
+
+    @Test
+    void shouldReuseUserLoadedDuringAuthentication() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+        AuthenticatedUser principal = new AuthenticatedUser(testUser, "encoded-password", true, List.of());
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(jwtTokenProvider.generateAccessToken(testUser)).thenReturn("access-token");
+        when(refreshTokenService.createRefreshToken(testUser)).thenReturn(testRefreshToken);
+
+        AuthResponse response = authService.login(request);
+
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
     @Test
     void shouldRequire2faWhenEnabled() {
         testUser.setTwoFactorEnabled(true);
@@ -185,9 +289,45 @@ class AuthServiceTest {
     void shouldLogout() {
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
-        authService.logout("test@example.com");
+        authService.logout("test@example.com", null, null);
 
         verify(refreshTokenService).deleteByUser(testUser);
+        verifyNoInteractions(tokenRevocationList);
+    }
+
+    @Test
+    void shouldLogoutOnlyTheCurrentSessionWhenRefreshTokenGiven() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(refreshTokenService.findByToken("refresh-token-value")).thenReturn(Optional.of(testRefreshToken));
+
+        authService.logout("test@example.com", null, "refresh-token-value");
+
+        verify(refreshTokenService).revokeSession(testUser, testRefreshToken);
+        verify(refreshTokenService, never()).deleteByUser(any());
+    }
+
+    @Test
+    void shouldRevokeAccessTokenOnLogout() {
+        ValidatedToken token = new ValidatedToken("test@example.com", Instant.now(),
+                Instant.now().plusSeconds(900), Map.of("jti", "token-id"));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.validate("access-token")).thenReturn(Optional.of(token));
+
+        authService.logout("test@example.com", "access-token", null);
+
+        verify(tokenRevocationList).revoke(token);
+    }
+
+    @Test
+    void shouldNotRevokeAnotherUsersTokenOnLogout() {
+        ValidatedToken token = new ValidatedToken("other@example.com", Instant.now(),
+                Instant.now().plusSeconds(900), Map.of("jti", "token-id"));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.validate("access-token")).thenReturn(Optional.of(token));
+
+        authService.logout("test@example.com", "access-token", null);
+
+        verifyNoInteractions(tokenRevocationList);
     }
 
     @Test
@@ -287,7 +427,8 @@ class AuthServiceTest {
         com.authforge.dto.TokenRefreshRequest req = new com.authforge.dto.TokenRefreshRequest();
         req.setRefreshToken("invalid");
 
-        when(refreshTokenService.findByToken("invalid")).thenReturn(Optional.empty());
+        when(refreshTokenService.rotate("invalid"))
+                .thenThrow(new com.authforge.exception.ResourceNotFoundException("Refresh token not found"));
 
         assertThatThrownBy(() -> authService.refreshToken(req))
                 .isInstanceOf(com.authforge.exception.ResourceNotFoundException.class)
@@ -298,7 +439,7 @@ class AuthServiceTest {
     void shouldFailLogoutIfUserNotFound() {
         when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> authService.logout("unknown@example.com"))
+        assertThatThrownBy(() -> authService.logout("unknown@example.com", null, null))
                 .isInstanceOf(com.authforge.exception.ResourceNotFoundException.class)
                 .hasMessageContaining("User not found");
     }
@@ -352,6 +493,22 @@ class AuthServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    void shouldRejectBreachedPasswordOnReset() {
+        com.authforge.dto.PasswordResetRequest request = new com.authforge.dto.PasswordResetRequest();
+        request.setToken("reset123");
+        request.setNewPassword("qwerty123");
+
+        when(userRepository.findByVerificationToken("reset123")).thenReturn(Optional.of(testUser));
+        when(breachedPasswordService.isBreached("qwerty123")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.resetPassword(request))
+                .isInstanceOf(com.authforge.exception.BadRequestException.class)
+                .hasMessageContaining("data breach");
+        assertThat(testUser.getPassword()).isEqualTo("encoded-password");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void shouldFailResetPasswordIfTokenInvalid() {
         com.authforge.dto.PasswordResetRequest request = new com.authforge.dto.PasswordResetRequest();
@@ -445,15 +602,37 @@ class AuthServiceTest {
         TokenRefreshRequest request = new TokenRefreshRequest();
         request.setRefreshToken("refresh-token-value");
 
-        when(refreshTokenService.findByToken("refresh-token-value")).thenReturn(Optional.of(testRefreshToken));
-        when(refreshTokenService.verifyExpiration(testRefreshToken)).thenReturn(testRefreshToken);
+        RefreshToken rotated = RefreshToken.builder()
+                .token("rotated-token-value")
+                .user(testUser)
+                .familyId("family-1")
+                .expiryDate(Instant.now().plusSeconds(3600))
+                .build();
+        when(refreshTokenService.rotate("refresh-token-value")).thenReturn(rotated);
         when(jwtTokenProvider.generateAccessToken(any())).thenReturn("new-access-token");
         when(jwtTokenProvider.getAccessTokenExpiration()).thenReturn(900000L);
-        when(refreshTokenService.createRefreshToken(testUser)).thenReturn(testRefreshToken);
 
         AuthResponse response = authService.refreshToken(request);
 
         assertThat(response.getAccessToken()).isEqualTo("new-access-token");
-        assertThat(response.getRefreshToken()).isEqualTo("refresh-token-value");
+        assertThat(response.getRefreshToken()).isEqualTo("rotated-token-value");
+        verify(refreshTokenService, never()).createRefreshToken(any());
+    }
+
+    @Test
+    void shouldRefreshFromSignedTokenWithoutRotating() {
+        TokenRefreshRequest request = new TokenRefreshRequest();
+        request.setRefreshToken("signed.refresh.token");
+
+        when(refreshTokenService.reuse("signed.refresh.token")).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.generateAccessToken(testUser)).thenReturn("new-access-token");
+
+        AuthResponse response = authService.refreshToken(request);
+
+        assertThat(response.getAccessToken()).isEqualTo("new-access-token");
+        assertThat(response.getRefreshToken()).isEqualTo("signed.refresh.token");
+        assertThat(response.getUser()).isNull();
+        verify(refreshTokenService, never()).rotate(any());
+        verifyNoInteractions(userRepository);
     }
 }
@@ -0,0 +1,64 @@
+package com.authforge.service;
+
+import com.authforge.security.BreachedPasswordFileBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordServiceTest {
+
+    // SHA-1("password") and SHA-1("password123"), in hash order
+    private static final String HIBP = """
+            5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:10434004
+            CBFDAC6008F9CAB4083784CBD1874F76618D2A97:251682
+            """;
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BreachedPasswordService service() throws IOException {
+        Path file = dir.resolve("breached.bin");
+        BreachedPasswordFileBuilder.convert(new BufferedReader(new StringReader(HIBP)), file);
+        return new BreachedPasswordService(meterRegistry, file.toString());
+    }
+
+    @Test
+    void detectsBreachedPasswords() throws IOException {
+        BreachedPasswordService service = service();
+
+        assertThat(service.isEnabled()).isTrue();
+        assertThat(service.isBreached("password")).isTrue();
+        assertThat(service.isBreached("password123")).isTrue();
+        assertThat(service.isBreached("correct horse battery staple")).isFalse();
+        assertThat(meterRegistry.get("auth.breached-password.rejected").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.breached-password.lookup").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void disabledWithoutFile() {
+        BreachedPasswordService service = new BreachedPasswordService(meterRegistry, "");
+
+        assertThat(service.isEnabled()).isFalse();
+        assertThat(service.isBreached("password")).isFalse();
+    }
+
+    @Test
+    void failsFastOnMissingFile() {
+        String missing = dir.resolve("missing.bin").toString();
+
+        assertThatThrownBy(() -> new BreachedPasswordService(meterRegistry, missing))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("missing.bin");
+    }
+}
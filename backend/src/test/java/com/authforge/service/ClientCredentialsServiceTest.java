@@ -0,0 +1,157 @@
+package com.authforge.service;
+
+import com.authforge.dto.ClientTokenResponse;
+import com.authforge.dto.ServiceClientResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.exception.ResourceNotFoundException;
+import com.authforge.model.ServiceClient;
+import com.authforge.repository.ServiceClientRepository;
+import com.authforge.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientCredentialsServiceTest {
+
+    @Mock
+    private ServiceClientRepository clientRepository;
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private ClientCredentialsService clientCredentialsService;
+    private ServiceClient client;
+    private String secret;
+
+    @BeforeEach
+    void setUp() {
+        clientCredentialsService = new ClientCredentialsService(
+                clientRepository, jwtTokenProvider, new SimpleMeterRegistry(), 300000L);
+
+        when(clientRepository.save(any(ServiceClient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ServiceClientResponse created = clientCredentialsService.createClient("billing-worker", List.of("metrics", "introspect"));
+        client = captureSavedClient();
+        secret = created.getClientSecret();
+    }
+
+    private ServiceClient captureSavedClient() {
+        ArgumentCaptor<ServiceClient> captor = ArgumentCaptor.forClass(ServiceClient.class);
+        verify(clientRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void shouldStoreOnlyTheSecretDigest() {
+        assertThat(client.getClientId()).startsWith("svc_");
+        assertThat(secret).hasSizeGreaterThanOrEqualTo(43);
+        assertThat(client.getSecretHash()).isNotEqualTo(secret).doesNotStartWith("$2");
+        assertThat(client.getScopes()).isEqualTo("introspect metrics");
+    }
+
+    @Test
+    void shouldIssueTokenWithAllAllowedScopesByDefault() {
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+        when(jwtTokenProvider.generateClientToken(eq(client.getClientId()), eq("introspect metrics"), any()))
+                .thenReturn("client-token");
+
+        ClientTokenResponse response = clientCredentialsService.issueToken(client.getClientId(), secret, null);
+
+        assertThat(response.getAccessToken()).isEqualTo("client-token");
+        assertThat(response.getTokenType()).isEqualTo("Bearer");
+        assertThat(response.getScope()).isEqualTo("introspect metrics");
+        assertThat(response.getExpiresIn()).isBetween(299L, 300L);
+    }
+
+    @Test
+    void shouldReuseUnexpiredTokenForSameClientAndScope() {
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+        when(jwtTokenProvider.generateClientToken(anyString(), anyString(), any()))
+                .thenReturn("first-token", "second-token");
+
+        String first = clientCredentialsService.issueToken(client.getClientId(), secret, "introspect").getAccessToken();
+        String again = clientCredentialsService.issueToken(client.getClientId(), secret, "introspect").getAccessToken();
+        String otherScope = clientCredentialsService.issueToken(client.getClientId(), secret, "metrics").getAccessToken();
+
+        assertThat(again).isEqualTo(first);
+        assertThat(otherScope).isEqualTo("second-token");
+        verify(jwtTokenProvider, times(2)).generateClientToken(anyString(), anyString(), any());
+    }
+
+    @Test
+    void shouldRejectWrongSecret() {
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+
+        assertThatThrownBy(() -> clientCredentialsService.issueToken(client.getClientId(), "wrong", null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid client credentials");
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void shouldRejectDisabledClient() {
+        client.setEnabled(false);
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+
+        assertThatThrownBy(() -> clientCredentialsService.issueToken(client.getClientId(), secret, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldRejectScopeOutsideTheAllowedSet() {
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+
+        assertThatThrownBy(() -> clientCredentialsService.issueToken(client.getClientId(), secret, "admin"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("scope");
+    }
+
+    @Test
+    void shouldRejectInvalidScopeOnCreate() {
+        assertThatThrownBy(() -> clientCredentialsService.createClient("bad", List.of("has space")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldListClientsWithoutSecrets() {
+        when(clientRepository.findAll()).thenReturn(List.of(client));
+
+        List<ServiceClientResponse> clients = clientCredentialsService.getAllClients();
+
+        assertThat(clients).singleElement().satisfies(c -> {
+            assertThat(c.getClientId()).isEqualTo(client.getClientId());
+            assertThat(c.getClientSecret()).isNull();
+            assertThat(c.getScopes()).containsExactly("introspect", "metrics");
+        });
+    }
+
+    @Test
+    void shouldDeleteClient() {
+        when(clientRepository.findByClientId(client.getClientId())).thenReturn(Optional.of(client));
+
+        clientCredentialsService.deleteClient(client.getClientId());
+
+        verify(clientRepository).delete(client);
+    }
+
+    @Test
+    void shouldFailToDeleteUnknownClient() {
+        when(clientRepository.findByClientId("svc_unknown")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> clientCredentialsService.deleteClient("svc_unknown"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -79,4 +80,36 @@ class CustomUserDetailsServiceTest {
         assertNotNull(userDetails);
         assertEquals("oauth2-user", userDetails.getPassword());
     }
+
+    @Test
+    void loadUserByUsername_LockedUntilFuture_ReturnsLockedUserDetails() {
+        testUser.setLockedUntil(java.time.Instant.now().plusSeconds(600));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername("test@example.com");
+
+        assertFalse(userDetails.isAccountNonLocked());
+    }
+
+    @Test
+    void loadUserByUsername_LockoutExpired_ReturnsUnlockedUserDetails() {
+        testUser.setLockedUntil(java.time.Instant.now().minusSeconds(1));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername("test@example.com");
+
+        assertTrue(userDetails.isAccountNonLocked());
+    }
+
+    @Test
+    void updatePassword_StoresNewHashAndReturnsUpdatedDetails() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        UserDetails current = customUserDetailsService.loadUserByUsername("test@example.com");
+
+        UserDetails updated = customUserDetailsService.updatePassword(current, "{bcrypt}$2a$12$new");
+
+        verify(userRepository).updatePassword("test@example.com", "{bcrypt}$2a$12$new");
+        assertEquals("{bcrypt}$2a$12$new", updated.getPassword());
+        assertEquals(current.getAuthorities(), updated.getAuthorities());
+    }
 }
@@ -0,0 +1,171 @@
+package com.authforge.service;
+
+import com.authforge.config.FeatureFlags;
+import com.authforge.dto.AuthResponse;
+import com.authforge.dto.LoginRequest;
+import com.authforge.model.RefreshToken;
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.repository.UserRepository;
+import com.authforge.security.JwtTokenProvider;
+import com.authforge.security.LoginAttemptTracker;
+import com.authforge.security.PasswordEncoders;
+import com.authforge.security.TokenRevocationList;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the SQL a login actually sends to {@code users}, with the real repository,
+ * {@link CustomUserDetailsService} and DAO provider behind {@link AuthService}. Runs outside a
+ * test transaction so entities are detached exactly as they are in production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CustomUserDetailsService.class, LoginQueryCountTest.SqlCapture.class})
+class LoginQueryCountTest {
+
+    private static final String EMAIL = "count@example.com";
+    private static final String PASSWORD = "password123";
+
+    @TestConfiguration
+    static class SqlCapture {
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            StatementInspector inspector = sql -> {
+                statements.add(sql.toLowerCase(Locale.ROOT));
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private SqlCapture sql;
+
+    private final PasswordEncoder passwordEncoder = PasswordEncoders.delegating("bcrypt", 4, 1024, 1);
+    private final TotpService totpService = mock(TotpService.class);
+    private final FeatureFlags featureFlags = new FeatureFlags();
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+        when(jwtTokenProvider.generateAccessToken(any())).thenReturn("access-token");
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.createRefreshToken(any()))
+                .thenReturn(RefreshToken.builder().token("refresh-token").build());
+        featureFlags.setEmailVerification(true);
+        featureFlags.setTwoFactor(true);
+
+        authService = new AuthService(userRepository, passwordEncoder, jwtTokenProvider, refreshTokenService,
+                new ProviderManager(provider), totpService, mock(EmailService.class), featureFlags,
+                mock(TokenRevocationList.class), mock(LoginAttemptTracker.class),
+                mock(BreachedPasswordService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String passwordHash) {
+        return userRepository.save(User.builder()
+                .email(EMAIL)
+                .name("Count")
+                .password(passwordHash)
+                .role(Role.USER)
+                .emailVerified(true)
+                .build());
+    }
+
+    private List<String> usersStatements() {
+        return sql.statements.stream().filter(s -> s.contains("users")).toList();
+    }
+
+    private static LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+        return request;
+    }
+
+    @Test
+    void loginLoadsUserOnce() {
+        saveUser(passwordEncoder.encode(PASSWORD));
+        sql.statements.clear();
+
+        AuthResponse response = authService.login(loginRequest());
+
+        assertThat(response.getAccessToken()).isEqualTo("access-token");
+        assertThat(usersStatements()).hasSize(1).allMatch(s -> s.startsWith("select"));
+    }
+
+    @Test
+    void hashUpgradeAndLockoutClearAreWritesNotReloads() {
+        User user = saveUser(PasswordEncoders.bcrypt(4).encode(PASSWORD));
+        user.setLockedUntil(Instant.now().minusSeconds(60));
+        userRepository.save(user);
+        sql.statements.clear();
+
+        authService.login(loginRequest());
+
+        List<String> statements = usersStatements();
+        assertThat(statements).filteredOn(s -> s.startsWith("select")).hasSize(1);
+        assertThat(statements).filteredOn(s -> s.startsWith("update")).hasSize(2);
+        User stored = userRepository.findByEmail(EMAIL).orElseThrow();
+        assertThat(stored.getPassword()).startsWith("{bcrypt}");
+        assertThat(stored.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void twoFactorLoginLoadsUserOncePerStep() {
+        User user = saveUser(passwordEncoder.encode(PASSWORD));
+        user.setTwoFactorEnabled(true);
+        user.setTwoFactorSecret("secret");
+        userRepository.save(user);
+        when(totpService.verifyCode("secret", "123456")).thenReturn(true);
+        sql.statements.clear();
+
+        assertThat(authService.login(loginRequest()).isRequiresTwoFactor()).isTrue();
+        assertThat(usersStatements()).hasSize(1);
+
+        sql.statements.clear();
+        assertThat(authService.verifyTwoFactor(EMAIL, "123456").getAccessToken()).isEqualTo("access-token");
+        assertThat(usersStatements()).hasSize(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.authforge.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPartitionsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldListDaysWithoutAPartition() {
+        List<String> existing = List.of("refresh_tokens_p20261017", "refresh_tokens_p20261019");
+
+        assertThat(RefreshTokenPartitions.missing(existing, TODAY, 3))
+                .containsExactly(LocalDate.of(2026, 10, 18), LocalDate.of(2026, 10, 20));
+    }
+
+    @Test
+    void shouldOnlyDropDailyPartitionsThatEndedBeforeToday() {
+        List<String> existing = List.of("refresh_tokens_default", "refresh_tokens_p20261017",
+                "refresh_tokens_p20261016", "refresh_tokens_p20261015", "refresh_tokens_pnotadate");
+
+        assertThat(RefreshTokenPartitions.expired(existing, TODAY))
+                .containsExactly("refresh_tokens_p20261015", "refresh_tokens_p20261016");
+    }
+
+    @Test
+    void shouldCreateAndDropPartitionsOfAPartitionedTable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("refresh_tokens_p20261016", "refresh_tokens_p20261017"));
+
+        new RefreshTokenPartitions(jdbcTemplate).maintain(Instant.parse("2026-10-17T12:00:00Z"), 1);
+
+        verify(jdbcTemplate).execute("create table if not exists refresh_tokens_p20261018 partition of refresh_tokens "
+                + "for values from ('2026-10-18 00:00:00+00') to ('2026-10-19 00:00:00+00')");
+        verify(jdbcTemplate).execute("drop table if exists refresh_tokens_p20261016");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldLeaveAnUnpartitionedTableAlone() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+
+        new RefreshTokenPartitions(jdbcTemplate).maintain(Instant.now(), 8);
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,150 @@
+package com.authforge.service;
+
+import com.authforge.model.RefreshToken;
+import com.authforge.model.Role;
+import com.authforge.model.SchedulerLock;
+import com.authforge.model.User;
+import com.authforge.repository.RefreshTokenRepository;
+import com.authforge.repository.SchedulerLockRepository;
+import com.authforge.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenPurgeJobTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RefreshTokenPartitions partitions = mock(RefreshTokenPartitions.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("purge@example.com").name("Purge").role(Role.USER).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        lockRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private RefreshTokenPurgeJob job(int batchSize, int maxBatches, boolean partitioned) {
+        return new RefreshTokenPurgeJob(refreshTokenRepository, new ScheduledJobLock(lockRepository),
+                partitions, meterRegistry, true, batchSize, maxBatches, 600000, 3600000, partitioned, 604800000L);
+    }
+
+    private void save(int count, Instant expiry) {
+        save(count, expiry, null);
+    }
+
+    private void save(int count, Instant expiry, Instant rotatedAt) {
+        for (int i = 0; i < count; i++) {
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .user(user)
+                    .familyId(UUID.randomUUID().toString())
+                    .tokenHash(RefreshTokenService.hash(UUID.randomUUID() + "-" + i))
+                    .rotatedAt(rotatedAt)
+                    .expiryDate(expiry)
+                    .build());
+        }
+    }
+
+    @Test
+    void shouldDeleteExpiredTokensInBatches() {
+        save(7, Instant.now().minusSeconds(60));
+        save(2, Instant.now().plusSeconds(3600));
+
+        assertThat(job(3, 10, false).purge()).isEqualTo(7);
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("auth.refresh.purged").count()).isEqualTo(7);
+        verifyNoInteractions(partitions);
+    }
+
+    @Test
+    void shouldDeleteRotatedTokensAfterGracePeriod() {
+        Instant expiry = Instant.now().plusSeconds(86400);
+        save(5, expiry, Instant.now().minusSeconds(7200));
+        save(2, expiry, Instant.now().minusSeconds(60));
+        save(1, expiry);
+
+        assertThat(job(2, 10, false).purge()).isEqualTo(5);
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("auth.refresh.purged").count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldShareBatchBudgetBetweenExpiredAndRotated() {
+        save(3, Instant.now().minusSeconds(60));
+        save(3, Instant.now().plusSeconds(86400), Instant.now().minusSeconds(7200));
+
+        assertThat(job(2, 3, false).purge()).isEqualTo(5);
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStopAfterMaxBatches() {
+        save(7, Instant.now().minusSeconds(60));
+
+        assertThat(job(2, 2, false).purge()).isEqualTo(4);
+        assertThat(refreshTokenRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipWhileAnotherNodeIsPurging() {
+        save(3, Instant.now().minusSeconds(60));
+        lockRepository.save(new SchedulerLock(RefreshTokenPurgeJob.LOCK_NAME, Instant.now().plusSeconds(600), "node-b"));
+
+        job(10, 10, false).run();
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldOnlyDeclareUniqueConstraintsThatAPartitionedTableAccepts() {
+        List<String> columns = jdbcTemplate.queryForList("""
+                select kcu.column_name
+                from information_schema.table_constraints tc
+                join information_schema.key_column_usage kcu on kcu.constraint_name = tc.constraint_name
+                where tc.table_name = 'REFRESH_TOKENS' and tc.constraint_type = 'UNIQUE'
+                order by kcu.constraint_name, kcu.ordinal_position
+                """, String.class);
+
+        assertThat(columns).containsExactly("TOKEN_HASH", "EXPIRY_DATE", "TOKEN", "EXPIRY_DATE");
+    }
+
+    @Test
+    void shouldMaintainPartitionsAheadOfTheLongestTokenLifetime() {
+        job(10, 10, true).run();
+
+        verify(partitions).maintain(any(Instant.class), eq(8));
+    }
+}
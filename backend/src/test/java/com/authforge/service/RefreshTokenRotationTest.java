@@ -0,0 +1,144 @@
+package com.authforge.service;
+
+import com.authforge.config.RefreshTokenSchemaMigration;
+import com.authforge.exception.BadRequestException;
+import com.authforge.model.RefreshToken;
+import com.authforge.model.Role;
+import com.authforge.model.User;
+import com.authforge.repository.RefreshTokenRepository;
+import com.authforge.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Session behaviour against a real schema: several devices per user, rotation inside a family,
+ * reuse revoking only that family, digest-only storage, and the upgrade path from the
+ * one-token-per-user table with plaintext UUID tokens.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "authforge.jwt.refresh-token-expiration=3600000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RefreshTokenService.class, RefreshTokenSchemaMigration.class, SimpleMeterRegistry.class})
+class RefreshTokenRotationTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenSchemaMigration migration;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("sessions@example.com")
+                .name("Sessions")
+                .role(Role.USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void eachLoginGetsItsOwnSession() {
+        RefreshToken laptop = refreshTokenService.createRefreshToken(user);
+        RefreshToken phone = refreshTokenService.createRefreshToken(user);
+
+        assertThat(laptop.getFamilyId()).isNotEqualTo(phone.getFamilyId());
+        assertThat(refreshTokenService.findSessions(user))
+                .extracting(RefreshToken::getFamilyId)
+                .containsExactlyInAnyOrder(laptop.getFamilyId(), phone.getFamilyId());
+        assertThat(refreshTokenService.findByToken(laptop.getToken())).isPresent();
+    }
+
+    @Test
+    void reuseRevokesOnlyThatFamily() {
+        RefreshToken laptop = refreshTokenService.createRefreshToken(user);
+        RefreshToken phone = refreshTokenService.createRefreshToken(user);
+
+        RefreshToken rotated = refreshTokenService.rotate(laptop.getToken());
+        assertThat(rotated.getFamilyId()).isEqualTo(laptop.getFamilyId());
+        assertThat(refreshTokenService.findSessions(user)).hasSize(2);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(laptop.getToken()))
+                .isInstanceOf(BadRequestException.class);
+
+        // The revocation is committed even though the caller saw an error
+        assertThat(refreshTokenService.findByToken(rotated.getToken())).isEmpty();
+        assertThat(refreshTokenService.findSessions(user))
+                .extracting(RefreshToken::getFamilyId)
+                .containsExactly(phone.getFamilyId());
+    }
+
+    @Test
+    void revokingASessionIsScopedToItsOwner() {
+        RefreshToken laptop = refreshTokenService.createRefreshToken(user);
+        User other = userRepository.save(User.builder().email("other@example.com").name("Other").build());
+
+        assertThat(refreshTokenService.revokeFamily(other, laptop.getFamilyId())).isFalse();
+        assertThat(refreshTokenService.revokeFamily(user, laptop.getFamilyId())).isTrue();
+        assertThat(refreshTokenService.findSessions(user)).isEmpty();
+    }
+
+    @Test
+    void storesOnlyTheTokenDigest() {
+        RefreshToken issued = refreshTokenService.createRefreshToken(user);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select token, token_hash from refresh_tokens where id = ?", issued.getId());
+        assertThat(row.get("token")).isNull();
+        assertThat((byte[]) row.get("token_hash")).hasSize(32);
+        assertThat(refreshTokenService.findByToken(issued.getToken()))
+                .map(RefreshToken::getId).contains(issued.getId());
+        assertThat(refreshTokenService.findByToken(issued.getToken() + "x")).isEmpty();
+    }
+
+    @Test
+    void migratesSingleSessionSchema() {
+        String legacyToken = UUID.randomUUID().toString();
+        jdbcTemplate.execute("alter table refresh_tokens add constraint uk_legacy_user unique (user_id)");
+        jdbcTemplate.execute("alter table refresh_tokens alter column token set not null");
+        jdbcTemplate.update("insert into refresh_tokens (token, user_id, expiry_date) values (?, ?, ?)",
+                legacyToken, user.getId(), Timestamp.from(Instant.now().plusSeconds(3600)));
+
+        migration.migrate();
+        migration.migrate();
+
+        RefreshToken legacy = refreshTokenService.findByToken(legacyToken).orElseThrow();
+        assertThat(legacy.getFamilyId()).isEqualTo("legacy-" + legacy.getId());
+        refreshTokenService.createRefreshToken(user);
+        assertThat(refreshTokenService.findSessions(user)).hasSize(2);
+
+        RefreshToken successor = refreshTokenService.rotate(legacyToken);
+        assertThat(successor.getFamilyId()).isEqualTo(legacy.getFamilyId());
+        assertThat(successor.getLegacyToken()).isNull();
+        assertThat(refreshTokenService.findByToken(successor.getToken())).isPresent();
+    }
+}
@@ -4,6 +4,8 @@ import com.authforge.model.RefreshToken;
 import com.authforge.model.Role;
 import com.authforge.model.User;
 import com.authforge.repository.RefreshTokenRepository;
+import com.authforge.security.SignedRefreshTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,11 +13,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,13 +29,14 @@ class RefreshTokenServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private RefreshTokenService refreshTokenService;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 604800000L);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, meterRegistry, Optional.empty(), 604800000L);
 
         testUser = User.builder()
                 .id(1L)
@@ -48,8 +54,83 @@ class RefreshTokenServiceTest {
         RefreshToken token = refreshTokenService.createRefreshToken(testUser);
 
         assertThat(token.getUser()).isEqualTo(testUser);
-        assertThat(token.getToken()).isNotBlank();
+        assertThat(token.getToken()).matches("[A-Za-z0-9_-]{43}");
+        assertThat(token.getTokenHash()).isEqualTo(RefreshTokenService.hash(token.getToken()));
+        assertThat(token.getLegacyToken()).isNull();
+        assertThat(token.getFamilyId()).isNotBlank();
         assertThat(token.getExpiryDate()).isAfter(Instant.now());
+        verify(refreshTokenRepository, never()).deleteByUser(any());
+    }
+
+    @Test
+    void shouldRotateWithinFamily() {
+        RefreshToken current = RefreshToken.builder()
+                .id(7L)
+                .token("current")
+                .familyId("family-1")
+                .sessionStartedAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .user(testUser)
+                .expiryDate(Instant.now().plusSeconds(3600))
+                .build();
+        when(refreshTokenRepository.findByTokenHash(aryEq(RefreshTokenService.hash("current")))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markRotated(eq(7L), any())).thenReturn(1);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RefreshToken next = refreshTokenService.rotate("current");
+
+        assertThat(next.getToken()).isNotEqualTo("current");
+        assertThat(next.getFamilyId()).isEqualTo("family-1");
+        assertThat(next.getSessionStartedAt()).isEqualTo(current.getSessionStartedAt());
+        assertThat(next.getUser()).isEqualTo(testUser);
+    }
+
+    @Test
+    void shouldRevokeFamilyWhenRotatedTokenIsReused() {
+        RefreshToken reused = RefreshToken.builder()
+                .id(7L)
+                .token("stolen")
+                .familyId("family-1")
+                .user(testUser)
+                .rotatedAt(Instant.now().minusSeconds(60))
+                .expiryDate(Instant.now().plusSeconds(3600))
+                .build();
+        when(refreshTokenRepository.findByTokenHash(aryEq(RefreshTokenService.hash("stolen")))).thenReturn(Optional.of(reused));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("stolen"))
+                .isInstanceOf(com.authforge.exception.BadRequestException.class)
+                .hasMessageContaining("already been used");
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+        assertThat(meterRegistry.get("auth.refresh.reuse-detected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTreatLostRotationRaceAsReuse() {
+        RefreshToken current = RefreshToken.builder()
+                .id(7L)
+                .token("current")
+                .familyId("family-1")
+                .user(testUser)
+                .expiryDate(Instant.now().plusSeconds(3600))
+                .build();
+        when(refreshTokenRepository.findByTokenHash(aryEq(RefreshTokenService.hash("current")))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markRotated(eq(7L), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("current"))
+                .isInstanceOf(com.authforge.exception.BadRequestException.class);
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+    }
+
+    @Test
+    void shouldOnlyRevokeOwnSessions() {
+        User other = User.builder().id(2L).email("other@example.com").build();
+        RefreshToken token = RefreshToken.builder().familyId("family-1").user(other).build();
+
+        refreshTokenService.revokeSession(testUser, token);
+
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
     }
 
     @Test
@@ -60,13 +141,28 @@ class RefreshTokenServiceTest {
                 .expiryDate(Instant.now().plusMillis(604800000))
                 .build();
 
-        when(refreshTokenRepository.findByToken("test-token")).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findByTokenHash(aryEq(RefreshTokenService.hash("test-token")))).thenReturn(Optional.of(refreshToken));
 
         Optional<RefreshToken> result = refreshTokenService.findByToken("test-token");
         assertThat(result).isPresent();
         assertThat(result.get().getToken()).isEqualTo("test-token");
     }
 
+    @Test
+    void shouldFindLegacyTokenByPlaintext() {
+        String legacy = "0b6f3c1e-9a52-4d7b-8f0e-2c4a6b8d0e1f";
+        RefreshToken refreshToken = RefreshToken.builder()
+                .legacyToken(legacy)
+                .user(testUser)
+                .expiryDate(Instant.now().plusMillis(604800000))
+                .build();
+
+        when(refreshTokenRepository.findByLegacyToken(legacy)).thenReturn(Optional.of(refreshToken));
+
+        assertThat(refreshTokenService.findByToken(legacy)).contains(refreshToken);
+        verify(refreshTokenRepository, never()).findByTokenHash(any());
+    }
+
     @Test
     void shouldVerifyValidToken() {
         RefreshToken refreshToken = RefreshToken.builder()
@@ -97,4 +193,47 @@ class RefreshTokenServiceTest {
         refreshTokenService.deleteByUser(testUser);
         verify(refreshTokenRepository).deleteByUser(testUser);
     }
+
+    @Test
+    void shouldIssueSignedTokensWhenEnabled() {
+        SignedRefreshTokens signedTokens = mock(SignedRefreshTokens.class);
+        RefreshTokenService service = new RefreshTokenService(
+                refreshTokenRepository, meterRegistry, Optional.of(signedTokens), 604800000L);
+        when(signedTokens.issue(any(RefreshToken.class))).thenReturn("header.payload.signature");
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RefreshToken token = service.createRefreshToken(testUser);
+
+        assertThat(token.getToken()).isEqualTo("header.payload.signature");
+        assertThat(token.getTokenHash()).isEqualTo(RefreshTokenService.hash("header.payload.signature"));
+    }
+
+    @Test
+    void shouldOnlyReuseSignedTokens() {
+        SignedRefreshTokens signedTokens = mock(SignedRefreshTokens.class);
+        RefreshTokenService service = new RefreshTokenService(
+                refreshTokenRepository, meterRegistry, Optional.of(signedTokens), 604800000L);
+        when(signedTokens.reuse("header.payload.signature")).thenReturn(Optional.of(testUser));
+
+        assertThat(service.reuse("header.payload.signature")).contains(testUser);
+        assertThat(service.reuse("opaque-token")).isEmpty();
+        assertThat(refreshTokenService.reuse("header.payload.signature")).isEmpty();
+    }
+
+    @Test
+    void shouldRevokeSignedFamiliesWhenSessionsEnd() {
+        SignedRefreshTokens signedTokens = mock(SignedRefreshTokens.class);
+        RefreshTokenService service = new RefreshTokenService(
+                refreshTokenRepository, meterRegistry, Optional.of(signedTokens), 604800000L);
+        when(refreshTokenRepository.deleteByUserAndFamilyId(testUser, "family-1")).thenReturn(1);
+        when(refreshTokenRepository.findFamilyIdsByUser(testUser)).thenReturn(List.of("family-2", "family-3"));
+
+        assertThat(service.revokeFamily(testUser, "family-1")).isTrue();
+        service.deleteByUser(testUser);
+
+        verify(signedTokens).revokeFamily("family-1");
+        verify(signedTokens).revokeFamily("family-2");
+        verify(signedTokens).revokeFamily("family-3");
+        verify(refreshTokenRepository).deleteByUser(testUser);
+    }
 }
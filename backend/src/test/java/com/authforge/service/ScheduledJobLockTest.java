@@ -0,0 +1,75 @@
+package com.authforge.service;
+
+import com.authforge.model.SchedulerLock;
+import com.authforge.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduledJobLockTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    @Autowired
+    private SchedulerLockRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldRunAndReleaseWhenFree() {
+        ScheduledJobLock lock = new ScheduledJobLock(repository);
+
+        assertThat(lock.runExclusively("job", LEASE, () -> { })).isTrue();
+        assertThat(lock.runExclusively("job", LEASE, () -> { })).isTrue();
+        assertThat(repository.findById("job").orElseThrow().getLockedUntil()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    void shouldSkipWhileAnotherNodeHoldsTheLease() {
+        ScheduledJobLock nodeA = new ScheduledJobLock(repository);
+        ScheduledJobLock nodeB = new ScheduledJobLock(repository);
+        AtomicBoolean ranOnB = new AtomicBoolean();
+
+        nodeA.runExclusively("job", LEASE, () -> ranOnB.set(nodeB.runExclusively("job", LEASE, () -> { })));
+
+        assertThat(ranOnB).isFalse();
+    }
+
+    @Test
+    void shouldTakeOverAnExpiredLease() {
+        repository.save(new SchedulerLock("job", Instant.now().minusSeconds(1), "crashed-node"));
+        ScheduledJobLock lock = new ScheduledJobLock(repository);
+
+        assertThat(lock.runExclusively("job", LEASE, () -> { })).isTrue();
+    }
+
+    @Test
+    void shouldReleaseWhenTheJobFails() {
+        ScheduledJobLock nodeA = new ScheduledJobLock(repository);
+        ScheduledJobLock nodeB = new ScheduledJobLock(repository);
+
+        try {
+            nodeA.runExclusively("job", LEASE, () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // the lease must still be given back
+        }
+
+        assertThat(nodeB.runExclusively("job", LEASE, () -> { })).isTrue();
+    }
+}
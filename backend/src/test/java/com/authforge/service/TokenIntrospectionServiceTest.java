@@ -0,0 +1,108 @@
+package com.authforge.service;
+
+import com.authforge.dto.IntrospectionResponse;
+import com.authforge.exception.BadRequestException;
+import com.authforge.security.TokenRevocationList;
+import com.authforge.security.ValidatedToken;
+import com.authforge.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+    @Mock
+    private TokenRevocationList revocationList;
+
+    private TokenIntrospectionService introspectionService;
+
+    @BeforeEach
+    void setUp() {
+        introspectionService = new TokenIntrospectionService(verifiedTokenCache, revocationList, 3);
+    }
+
+    private static ValidatedToken token(boolean enabled) {
+        Instant now = Instant.now();
+        return new ValidatedToken("test@example.com", now, now.plusSeconds(900), Map.of(
+                "jti", "token-id",
+                ValidatedToken.ROLE_CLAIM, "ADMIN",
+                ValidatedToken.ENABLED_CLAIM, enabled,
+                ValidatedToken.SECURITY_VERSION_CLAIM, 0L));
+    }
+
+    @Test
+    void shouldDescribeActiveToken() {
+        ValidatedToken token = token(true);
+        when(verifiedTokenCache.validate("valid")).thenReturn(Optional.of(token));
+
+        IntrospectionResponse response = introspectionService.introspect("valid");
+
+        assertThat(response.isActive()).isTrue();
+        assertThat(response.getSub()).isEqualTo("test@example.com");
+        assertThat(response.getRole()).isEqualTo("ADMIN");
+        assertThat(response.getJti()).isEqualTo("token-id");
+        assertThat(response.getExp()).isEqualTo(token.expiresAt().getEpochSecond());
+        assertThat(response.getTokenType()).isEqualTo("Bearer");
+    }
+
+    @Test
+    void shouldReportInvalidTokenAsInactive() {
+        when(verifiedTokenCache.validate("invalid")).thenReturn(Optional.empty());
+
+        IntrospectionResponse response = introspectionService.introspect("invalid");
+
+        assertThat(response.isActive()).isFalse();
+        assertThat(response.getSub()).isNull();
+    }
+
+    @Test
+    void shouldReportRevokedTokenAsInactive() {
+        ValidatedToken token = token(true);
+        when(verifiedTokenCache.validate("revoked")).thenReturn(Optional.of(token));
+        when(revocationList.isRevoked(token)).thenReturn(true);
+
+        assertThat(introspectionService.introspect("revoked").isActive()).isFalse();
+    }
+
+    @Test
+    void shouldReportDisabledUserTokenAsInactive() {
+        when(verifiedTokenCache.validate("disabled")).thenReturn(Optional.of(token(false)));
+
+        assertThat(introspectionService.introspect("disabled").isActive()).isFalse();
+    }
+
+    @Test
+    void shouldIntrospectBatchInOrderAndValidateDuplicatesOnce() {
+        when(verifiedTokenCache.validate("valid")).thenReturn(Optional.of(token(true)));
+        when(verifiedTokenCache.validate("invalid")).thenReturn(Optional.empty());
+
+        List<IntrospectionResponse> responses = introspectionService.introspect(List.of("valid", "invalid", "valid"));
+
+        assertThat(responses).extracting(IntrospectionResponse::isActive).containsExactly(true, false, true);
+        verify(verifiedTokenCache, times(1)).validate("valid");
+    }
+
+    @Test
+    void shouldRejectOversizedBatch() {
+        List<String> tokens = Collections.nCopies(4, "token");
+
+        assertThatThrownBy(() -> introspectionService.introspect(tokens))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("At most 3");
+    }
+}
@@ -3,6 +3,7 @@ package com.authforge.service;
 import com.authforge.model.Role;
 import com.authforge.model.User;
 import com.authforge.repository.UserRepository;
+import com.authforge.security.SecurityVersionTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SecurityVersionTracker securityVersionTracker;
+
     @InjectMocks
     private UserService userService;
 
@@ -73,6 +77,8 @@ class UserServiceTest {
 
         User result = userService.changeRole(1L, "ADMIN");
         assertThat(result.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(result.getSecurityVersion()).isEqualTo(1L);
+        verify(securityVersionTracker).invalidate("test@example.com");
     }
 
     @Test
@@ -43,7 +43,7 @@ const API = (() => {
         login: (body) => request('/auth/login', { method: 'POST', body }),
         verify2fa: (body) => request('/auth/2fa/verify', { method: 'POST', body }),
         refresh: (body) => request('/auth/refresh', { method: 'POST', body }),
-        logout: () => request('/auth/logout', { method: 'POST' }),
+        logout: () => request('/auth/logout', { method: 'POST', body: { refreshToken: Auth.getRefreshToken() } }),
         forgotPassword: (email) => request('/auth/forgot-password', { method: 'POST', body: { email } }),
         resetPassword: (body) => request('/auth/reset-password', { method: 'POST', body }),
         getMe: () => request('/users/me'),
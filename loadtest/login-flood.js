@@ -0,0 +1,69 @@
+// Login flood against the BCrypt endpoints while a steady client reads /api/users/me.
+//
+//   k6 run -e BASE_URL=http://localhost:8090 loadtest/login-flood.js
+//
+// The flood spoofs X-Forwarded-For and guesses a different unknown email on every iteration, so
+// neither the per-IP and per-account rate limits nor the per-account login throttle absorb it.
+// Every attempt reaches a password hash (unknown emails are hashed too), and the concurrency
+// limiter has to shed the load. Passing run: the cheap endpoint's p99 stays under the threshold
+// while the flood mostly gets fast 503s rather than slow 401s. A few 429s are still fine.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8090';
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export const options = {
+    scenarios: {
+        baseline: {
+            executor: 'constant-arrival-rate',
+            exec: 'readProfile',
+            rate: 50,
+            timeUnit: '1s',
+            duration: '90s',
+            preAllocatedVUs: 20,
+        },
+        flood: {
+            executor: 'ramping-vus',
+            exec: 'login',
+            startTime: '30s',
+            stages: [
+                { duration: '10s', target: 300 },
+                { duration: '30s', target: 300 },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:baseline}': ['p(99)<100'],
+        'checks{scenario:baseline}': ['rate>0.99'],
+        'http_req_duration{scenario:flood,status:503}': ['p(99)<50'],
+    },
+};
+
+export function setup() {
+    const email = `loadtest-${Date.now()}@example.com`;
+    const res = http.post(`${BASE_URL}/api/auth/register`,
+        JSON.stringify({ name: 'Load Test', email, password: 'load-test-password' }),
+        { headers: JSON_HEADERS });
+    check(res, { registered: (r) => r.status === 201 });
+    return { token: res.json('accessToken') };
+}
+
+export function readProfile(data) {
+    const res = http.get(`${BASE_URL}/api/users/me`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+    });
+    check(res, { 'profile 200': (r) => r.status === 200 });
+}
+
+export function login() {
+    const ip = `10.${__VU % 256}.${Math.floor(__ITER / 256) % 256}.${__ITER % 256}`;
+    const email = `flood-${__VU}-${__ITER}@example.com`;
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email, password: 'wrong-password' }),
+        { headers: { ...JSON_HEADERS, 'X-Forwarded-For': ip } });
+    check(res, {
+        'rejected, throttled or shed': (r) => [400, 401, 429, 503].includes(r.status),
+    });
+}